@@ -0,0 +1,383 @@
+package tsi.too.ext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tsi.too.util.LocaleUtils;
+import tsi.too.util.LocaleUtils.FormatStyle;
+
+/**
+ * A purpose-built formatter for the Brazilian currency.
+ *
+ * <p>
+ * Produces exactly the same output as
+ * {@code NumberFormat.getCurrencyInstance(LocaleUtils.getBrazilianLocale())}
+ * (including its {@link RoundingMode#HALF_EVEN} rounding of {@code double}
+ * values) without building a {@link NumberFormat} per call. The currency
+ * symbols are read once from the JDK locale data, so the output follows the
+ * running locale provider.
+ * </p>
+ *
+ * <p>
+ * This class is stateless and therefore thread-safe. The {@code long} and
+ * {@code double} paths write straight into the target and allocate nothing,
+ * except for doubles of magnitude 2<sup>46</sup> and above, which are handed to
+ * a per-thread {@link NumberFormat}.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ */
+public class BrazilianCurrencyFormatter {
+
+	private static final int FRACTION_DIGITS = 2;
+
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+			10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+			10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L,
+			100_000_000_000_000_000L, 1_000_000_000_000_000_000L };
+
+	private static final double EXACT_DOUBLE_LIMIT = 0x1p46;
+
+	private static final String POSITIVE_PREFIX;
+	private static final String POSITIVE_SUFFIX;
+	private static final String NEGATIVE_PREFIX;
+	private static final String NEGATIVE_SUFFIX;
+	private static final String NAN;
+	private static final String INFINITY;
+	private static final char GROUPING_SEPARATOR;
+	private static final char DECIMAL_SEPARATOR;
+	private static final int GROUPING_SIZE;
+
+	static {
+		final DecimalFormat format = (DecimalFormat) LocaleUtils.newNumberFormat(LocaleUtils.BRAZILIAN_LOCALE,
+				FormatStyle.CURRENCY);
+		final DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+
+		POSITIVE_PREFIX = format.getPositivePrefix();
+		POSITIVE_SUFFIX = format.getPositiveSuffix();
+		NEGATIVE_PREFIX = format.getNegativePrefix();
+		NEGATIVE_SUFFIX = format.getNegativeSuffix();
+		NAN = symbols.getNaN();
+		INFINITY = symbols.getInfinity();
+		GROUPING_SEPARATOR = symbols.getGroupingSeparator();
+		DECIMAL_SEPARATOR = symbols.getMonetaryDecimalSeparator();
+		GROUPING_SIZE = format.isGroupingUsed() ? format.getGroupingSize() : 0;
+	}
+
+	/**
+	 * Formats an amount of cents as Brazilian currency.
+	 *
+	 * @param cents the amount in cents.
+	 * @return a String formatted as Brazilian currency.
+	 *
+	 * @since 0.1
+	 */
+	public static String formatCents(final long cents) {
+		return appendCents(new StringBuilder(24), cents).toString();
+	}
+
+	/**
+	 * Formats a {@code double} as Brazilian currency.
+	 *
+	 * @param value the value to format.
+	 * @return a String formatted as Brazilian currency.
+	 *
+	 * @since 0.1
+	 */
+	public static String format(final double value) {
+		return append(new StringBuilder(24), value).toString();
+	}
+
+	/**
+	 * Formats a {@code BigDecimal} as Brazilian currency.
+	 *
+	 * @param value the value to format.
+	 * @return a String formatted as Brazilian currency.
+	 *
+	 * @since 0.1
+	 */
+	public static String format(final BigDecimal value) {
+		return append(new StringBuilder(24), value).toString();
+	}
+
+	/**
+	 * Formats a {@code Number} as Brazilian currency, dispatching on its runtime
+	 * type the same way {@link DecimalFormat#format(Object)} does.
+	 *
+	 * @param number the number to format.
+	 * @return a String formatted as Brazilian currency.
+	 * @throws IllegalArgumentException if {@code number} is null.
+	 *
+	 * @since 0.1
+	 */
+	public static String format(final Number number) {
+		return append(new StringBuilder(24), number).toString();
+	}
+
+	/**
+	 * Appends an amount of cents formatted as Brazilian currency.
+	 *
+	 * @param target the target {@code StringBuilder}.
+	 * @param cents  the amount in cents.
+	 * @return the {@code target}.
+	 *
+	 * @since 0.1
+	 */
+	public static StringBuilder appendCents(final StringBuilder target, final long cents) {
+		try {
+			appendCents((Appendable) target, cents);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		return target;
+	}
+
+	/**
+	 * Appends a {@code double} formatted as Brazilian currency.
+	 *
+	 * @param target the target {@code StringBuilder}.
+	 * @param value  the value to format.
+	 * @return the {@code target}.
+	 *
+	 * @since 0.1
+	 */
+	public static StringBuilder append(final StringBuilder target, final double value) {
+		try {
+			append((Appendable) target, value);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		return target;
+	}
+
+	/**
+	 * Appends a {@code BigDecimal} formatted as Brazilian currency.
+	 *
+	 * @param target the target {@code StringBuilder}.
+	 * @param value  the value to format.
+	 * @return the {@code target}.
+	 *
+	 * @since 0.1
+	 */
+	public static StringBuilder append(final StringBuilder target, final BigDecimal value) {
+		try {
+			append((Appendable) target, value);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		return target;
+	}
+
+	/**
+	 * Appends a {@code Number} formatted as Brazilian currency.
+	 *
+	 * @param target the target {@code StringBuilder}.
+	 * @param number the number to format.
+	 * @return the {@code target}.
+	 * @throws IllegalArgumentException if {@code number} is null.
+	 *
+	 * @since 0.1
+	 */
+	public static StringBuilder append(final StringBuilder target, final Number number) {
+		try {
+			append((Appendable) target, number);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		return target;
+	}
+
+	/**
+	 * Appends an amount of cents formatted as Brazilian currency.
+	 *
+	 * @param target the target {@code Appendable}.
+	 * @param cents  the amount in cents.
+	 * @return the {@code target}.
+	 * @throws IOException if the {@code target} fails.
+	 *
+	 * @since 0.1
+	 */
+	public static Appendable appendCents(final Appendable target, final long cents) throws IOException {
+		final boolean negative = cents < 0;
+
+		// negating the quotient and the remainder separately keeps Long.MIN_VALUE safe
+		final long whole = cents / 100;
+		final long fraction = cents % 100;
+
+		return appendParts(target, negative, negative ? -whole : whole, (int) (negative ? -fraction : fraction));
+	}
+
+	/**
+	 * Appends a {@code double} formatted as Brazilian currency.
+	 *
+	 * @param target the target {@code Appendable}.
+	 * @param value  the value to format.
+	 * @return the {@code target}.
+	 * @throws IOException if the {@code target} fails.
+	 *
+	 * @since 0.1
+	 */
+	public static Appendable append(final Appendable target, final double value) throws IOException {
+		if (Double.isNaN(value))
+			return target.append(NAN);
+
+		final boolean negative = value < 0.0 || (value == 0.0 && 1 / value < 0.0);
+		final double abs = Math.abs(value);
+
+		if (Double.isInfinite(abs))
+			return target.append(negative ? NEGATIVE_PREFIX : POSITIVE_PREFIX).append(INFINITY)
+					.append(negative ? NEGATIVE_SUFFIX : POSITIVE_SUFFIX);
+
+		// from here on a cent is no finer than the double spacing, and the JDK rounds the
+		// shortest decimal representation instead of the exact binary value
+		if (abs >= EXACT_DOUBLE_LIMIT) {
+			final NumberFormat format = LocaleUtils.getNumberFormat(LocaleUtils.BRAZILIAN_LOCALE,
+					FormatStyle.CURRENCY);
+			return target.append(format.format(value));
+		}
+
+		// both subtractions below are exact, so only the cents need rounding
+		long whole = (long) abs;
+		final double fraction = abs - whole;
+		final double scaled = fraction * 100;
+		final double error = Math.fma(fraction, 100, -scaled);
+		final double floor = Math.floor(scaled);
+		final double remainder = scaled - floor;
+		int cents = (int) floor;
+
+		// the exact value is scaled + error; the error only matters on a tie
+		if (remainder > 0.5 || (remainder == 0.5 && (error > 0 || (error == 0 && (cents & 1) != 0))))
+			cents++;
+
+		if (cents == 100) {
+			whole++;
+			cents = 0;
+		}
+
+		return appendParts(target, negative, whole, cents);
+	}
+
+	/**
+	 * Appends a {@code BigDecimal} formatted as Brazilian currency.
+	 *
+	 * @param target the target {@code Appendable}.
+	 * @param value  the value to format.
+	 * @return the {@code target}.
+	 * @throws IOException              if the {@code target} fails.
+	 * @throws IllegalArgumentException if {@code value} is null.
+	 *
+	 * @since 0.1
+	 */
+	public static Appendable append(final Appendable target, final BigDecimal value) throws IOException {
+		if (value == null)
+			throw new IllegalArgumentException("Cannot format given Object as a Number");
+
+		final BigDecimal rounded = value.abs().setScale(FRACTION_DIGITS, RoundingMode.HALF_EVEN);
+
+		return appendBig(target, value.signum() < 0, rounded);
+	}
+
+	/**
+	 * Appends a {@code Number} formatted as Brazilian currency, dispatching on its
+	 * runtime type the same way {@link DecimalFormat#format(Object)} does.
+	 *
+	 * @param target the target {@code Appendable}.
+	 * @param number the number to format.
+	 * @return the {@code target}.
+	 * @throws IOException              if the {@code target} fails.
+	 * @throws IllegalArgumentException if {@code number} is null.
+	 *
+	 * @since 0.1
+	 */
+	public static Appendable append(final Appendable target, final Number number) throws IOException {
+		if (number == null)
+			throw new IllegalArgumentException("Cannot format given Object as a Number");
+
+		if (number instanceof Long || number instanceof Integer || number instanceof Short
+				|| number instanceof Byte || number instanceof AtomicInteger || number instanceof AtomicLong)
+			return appendInteger(target, number.longValue());
+
+		if (number instanceof BigInteger) {
+			final BigInteger value = (BigInteger) number;
+
+			if (value.bitLength() < 64)
+				return appendInteger(target, value.longValue());
+
+			return appendBig(target, value.signum() < 0, new BigDecimal(value.abs()).setScale(FRACTION_DIGITS));
+		}
+
+		if (number instanceof BigDecimal)
+			return append(target, (BigDecimal) number);
+
+		return append(target, number.doubleValue());
+	}
+
+	private static Appendable appendInteger(final Appendable target, final long value) throws IOException {
+		if (value == Long.MIN_VALUE)
+			return appendBig(target, true, BigDecimal.valueOf(value).negate().setScale(FRACTION_DIGITS));
+
+		return appendParts(target, value < 0, Math.abs(value), 0);
+	}
+
+	/**
+	 * Appends a non-negative amount split into its integer part and its cents.
+	 */
+	private static Appendable appendParts(final Appendable target, final boolean negative, final long whole,
+			final int cents) throws IOException {
+		target.append(negative ? NEGATIVE_PREFIX : POSITIVE_PREFIX);
+
+		int digits = 1;
+		while (digits < POWERS_OF_TEN.length && whole >= POWERS_OF_TEN[digits])
+			digits++;
+
+		for (int i = digits - 1; i >= 0; i--) {
+			target.append((char) ('0' + (whole / POWERS_OF_TEN[i]) % 10));
+
+			if (GROUPING_SIZE > 0 && i > 0 && i % GROUPING_SIZE == 0)
+				target.append(GROUPING_SEPARATOR);
+		}
+
+		return target.append(DECIMAL_SEPARATOR).append((char) ('0' + cents / 10)).append((char) ('0' + cents % 10))
+				.append(negative ? NEGATIVE_SUFFIX : POSITIVE_SUFFIX);
+	}
+
+	/**
+	 * Appends a non-negative {@code BigDecimal} already at scale 2.
+	 */
+	private static Appendable appendBig(final Appendable target, final boolean negative, final BigDecimal value)
+			throws IOException {
+		if (value.precision() < 19) {
+			final long unscaled = value.unscaledValue().longValue();
+			return appendParts(target, negative, unscaled / 100, (int) (unscaled % 100));
+		}
+
+		final String digits = value.unscaledValue().toString();
+		final int wholeDigits = digits.length() - FRACTION_DIGITS;
+
+		target.append(negative ? NEGATIVE_PREFIX : POSITIVE_PREFIX);
+
+		for (int i = 0; i < wholeDigits; i++) {
+			target.append(digits.charAt(i));
+
+			final int remaining = wholeDigits - i - 1;
+			if (GROUPING_SIZE > 0 && remaining > 0 && remaining % GROUPING_SIZE == 0)
+				target.append(GROUPING_SEPARATOR);
+		}
+
+		return target.append(DECIMAL_SEPARATOR).append(digits, wholeDigits, digits.length())
+				.append(negative ? NEGATIVE_SUFFIX : POSITIVE_SUFFIX);
+	}
+}
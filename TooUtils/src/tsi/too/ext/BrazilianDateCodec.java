@@ -0,0 +1,378 @@
+package tsi.too.ext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/**
+ * Parses and formats dates written as {@code dd/MM/yyyy}, the Brazilian short
+ * date format.
+ *
+ * <p>
+ * Parsing goes straight from chars or bytes to an epoch day: exactly two day
+ * digits, two month digits and four year digits separated by {@code '/'}, with
+ * the day checked against the month as {@link LocalDate#of(int, int, int)}
+ * does. The {@code tryParse*} methods report malformed input through a
+ * {@link ParseResult} instead of an exception.
+ * </p>
+ *
+ * <p>
+ * Formatting copies {@code "dd/MM/"} and {@code "yyyy"} from tables built once
+ * for a range of years; dates outside the range are handed to a
+ * {@link DateTimeFormatter} with the same pattern. Instances are immutable and
+ * may be shared between threads.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ */
+public class BrazilianDateCodec {
+
+	/**
+	 * The length of a {@code dd/MM/yyyy} date.
+	 *
+	 * @since 0.1
+	 */
+	public static final int LENGTH = 10;
+
+	private static final int DEFAULT_MIN_YEAR = 1900;
+	private static final int DEFAULT_MAX_YEAR = 2099;
+
+	private static final long DAYS_0000_TO_1970 = 719_528L;
+	private static final int DAYS_PER_CYCLE = 146_097;
+
+	private static final DateTimeFormatter FALLBACK_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+	private static final String MONTH_DAYS = monthDays(false);
+	private static final String LEAP_MONTH_DAYS = monthDays(true);
+
+	private static final BrazilianDateCodec DEFAULT = new BrazilianDateCodec(DEFAULT_MIN_YEAR, DEFAULT_MAX_YEAR);
+
+	private final int minYear;
+	private final long firstEpochDay;
+	private final long[] yearStarts;
+	private final String years;
+
+	/**
+	 * Creates a codec whose formatting tables cover a range of years.
+	 *
+	 * @param minYear the first year of the tables.
+	 * @param maxYear the last year of the tables.
+	 * @throws IllegalArgumentException if the range is empty or is not within
+	 *                                  years 1 to 9999.
+	 *
+	 * @since 0.1
+	 */
+	public BrazilianDateCodec(int minYear, int maxYear) {
+		if (minYear < 1 || maxYear > 9999 || minYear > maxYear)
+			throw new IllegalArgumentException("years must be a range within 1 and 9999");
+
+		final int count = maxYear - minYear + 1;
+		final StringBuilder years = new StringBuilder(count * 4);
+
+		this.minYear = minYear;
+		this.yearStarts = new long[count + 1];
+
+		for (int i = 0; i <= count; i++)
+			yearStarts[i] = toEpochDay(minYear + i, 1, 1);
+
+		for (int year = minYear; year <= maxYear; year++)
+			appendDigits(years, year, 4);
+
+		this.firstEpochDay = yearStarts[0];
+		this.years = years.toString();
+	}
+
+	/**
+	 * Gets a shared codec whose formatting tables cover the years 1900 to 2099.
+	 *
+	 * @return the shared codec.
+	 *
+	 * @since 0.1
+	 */
+	public static BrazilianDateCodec getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Parses a {@code dd/MM/yyyy} date.
+	 *
+	 * @param text the text to be parsed.
+	 * @return the parsed date.
+	 * @throws DateTimeParseException if the text is not a valid date.
+	 *
+	 * @since 0.1
+	 */
+	public static LocalDate parse(CharSequence text) throws DateTimeParseException {
+		final ParseResult result = new ParseResult();
+
+		if (!tryParseEpochDay(text, result))
+			throw new DateTimeParseException("Text '" + text + "' is not a valid dd/MM/yyyy date", text, 0);
+
+		return LocalDate.ofEpochDay(result.longValue());
+	}
+
+	/**
+	 * Parses a {@code dd/MM/yyyy} date to its epoch day, without throwing.
+	 *
+	 * @param text   the text to be parsed, may be null.
+	 * @param result receives the epoch day ({@link LocalDate#toEpochDay()}).
+	 * @return true if the text is a valid date.
+	 *
+	 * @since 0.1
+	 */
+	public static boolean tryParseEpochDay(CharSequence text, ParseResult result) {
+		if (text == null || text.length() != LENGTH)
+			return result.fail();
+
+		return tryParseEpochDay(text, 0, LENGTH, result);
+	}
+
+	/**
+	 * Parses a range holding a {@code dd/MM/yyyy} date to its epoch day, without
+	 * throwing.
+	 *
+	 * @param text       the text to be parsed.
+	 * @param beginIndex the beginning index, inclusive.
+	 * @param endIndex   the ending index, exclusive.
+	 * @param result     receives the epoch day ({@link LocalDate#toEpochDay()}).
+	 * @return true if the range is a valid date.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static boolean tryParseEpochDay(CharSequence text, int beginIndex, int endIndex, ParseResult result) {
+		Objects.checkFromToIndex(beginIndex, endIndex, text.length());
+
+		if (endIndex - beginIndex != LENGTH || text.charAt(beginIndex + 2) != '/'
+				|| text.charAt(beginIndex + 5) != '/')
+			return result.fail();
+
+		final int day = digits(text.charAt(beginIndex), text.charAt(beginIndex + 1));
+		final int month = digits(text.charAt(beginIndex + 3), text.charAt(beginIndex + 4));
+		final int century = digits(text.charAt(beginIndex + 6), text.charAt(beginIndex + 7));
+		final int yearOfCentury = digits(text.charAt(beginIndex + 8), text.charAt(beginIndex + 9));
+
+		return toEpochDay(day, month, century, yearOfCentury, result);
+	}
+
+	/**
+	 * Parses a range of ASCII bytes holding a {@code dd/MM/yyyy} date to its
+	 * epoch day, without throwing.
+	 *
+	 * @param bytes      the bytes to be parsed.
+	 * @param beginIndex the beginning index, inclusive.
+	 * @param endIndex   the ending index, exclusive.
+	 * @param result     receives the epoch day ({@link LocalDate#toEpochDay()}).
+	 * @return true if the range is a valid date.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static boolean tryParseEpochDay(byte[] bytes, int beginIndex, int endIndex, ParseResult result) {
+		Objects.checkFromToIndex(beginIndex, endIndex, bytes.length);
+
+		if (endIndex - beginIndex != LENGTH || bytes[beginIndex + 2] != '/' || bytes[beginIndex + 5] != '/')
+			return result.fail();
+
+		final int day = digits((char) bytes[beginIndex], (char) bytes[beginIndex + 1]);
+		final int month = digits((char) bytes[beginIndex + 3], (char) bytes[beginIndex + 4]);
+		final int century = digits((char) bytes[beginIndex + 6], (char) bytes[beginIndex + 7]);
+		final int yearOfCentury = digits((char) bytes[beginIndex + 8], (char) bytes[beginIndex + 9]);
+
+		return toEpochDay(day, month, century, yearOfCentury, result);
+	}
+
+	/**
+	 * Formats a date as {@code dd/MM/yyyy}.
+	 *
+	 * @param date the date to be formatted.
+	 * @return the formatted date.
+	 *
+	 * @since 0.1
+	 */
+	public String format(LocalDate date) {
+		return format(date.toEpochDay());
+	}
+
+	/**
+	 * Formats an epoch day as {@code dd/MM/yyyy}.
+	 *
+	 * @param epochDay the day to be formatted.
+	 * @return the formatted date.
+	 * @throws java.time.DateTimeException if the day is beyond the range of
+	 *                                     {@code LocalDate}.
+	 *
+	 * @since 0.1
+	 */
+	public String format(long epochDay) {
+		return append(new StringBuilder(LENGTH), epochDay).toString();
+	}
+
+	/**
+	 * Appends a date, formatted as {@code dd/MM/yyyy}, to a
+	 * {@code StringBuilder}.
+	 *
+	 * @param builder  the target builder.
+	 * @param epochDay the day to be formatted.
+	 * @return the given builder.
+	 * @throws java.time.DateTimeException if the day is beyond the range of
+	 *                                     {@code LocalDate}.
+	 *
+	 * @since 0.1
+	 */
+	public StringBuilder append(StringBuilder builder, long epochDay) {
+		try {
+			append((Appendable) builder, epochDay);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		return builder;
+	}
+
+	/**
+	 * Appends a date, formatted as {@code dd/MM/yyyy}, to an {@code Appendable}.
+	 *
+	 * @param appendable the target.
+	 * @param epochDay   the day to be formatted.
+	 * @return the given {@code Appendable}.
+	 * @throws IOException                 if the {@code Appendable} fails.
+	 * @throws java.time.DateTimeException if the day is beyond the range of
+	 *                                     {@code LocalDate}.
+	 *
+	 * @since 0.1
+	 */
+	public <A extends Appendable> A append(A appendable, long epochDay) throws IOException {
+		final long offset = epochDay - firstEpochDay;
+
+		if (offset < 0 || epochDay >= yearStarts[yearStarts.length - 1]) {
+			FALLBACK_FORMATTER.formatTo(LocalDate.ofEpochDay(epochDay), appendable);
+			return appendable;
+		}
+
+		// an estimate from the mean year length, then corrected
+		int year = Math.min((int) (offset * 400 / DAYS_PER_CYCLE), yearStarts.length - 2);
+
+		while (yearStarts[year] > epochDay)
+			year--;
+
+		while (yearStarts[year + 1] <= epochDay)
+			year++;
+
+		final int dayOfYear = (int) (epochDay - yearStarts[year]);
+		final String monthDays = yearStarts[year + 1] - yearStarts[year] == 366 ? LEAP_MONTH_DAYS : MONTH_DAYS;
+
+		appendable.append(monthDays, dayOfYear * 6, dayOfYear * 6 + 6);
+		appendable.append(years, year * 4, year * 4 + 4);
+
+		return appendable;
+	}
+
+	/**
+	 * Gets the first year of the formatting tables.
+	 *
+	 * @return the first year.
+	 *
+	 * @since 0.1
+	 */
+	public int getMinYear() {
+		return minYear;
+	}
+
+	/**
+	 * Gets the last year of the formatting tables.
+	 *
+	 * @return the last year.
+	 *
+	 * @since 0.1
+	 */
+	public int getMaxYear() {
+		return minYear + yearStarts.length - 2;
+	}
+
+	/**
+	 * Yields the value of two ASCII digits, or a negative number if either is not
+	 * a digit.
+	 */
+	private static int digits(char tens, char units) {
+		final int high = tens - '0';
+		final int low = units - '0';
+
+		if (high < 0 || high > 9 || low < 0 || low > 9)
+			return -1;
+
+		return high * 10 + low;
+	}
+
+	private static boolean toEpochDay(int day, int month, int century, int yearOfCentury, ParseResult result) {
+		if (day < 1 || month < 1 || month > 12 || century < 0 || yearOfCentury < 0)
+			return result.fail();
+
+		final int year = century * 100 + yearOfCentury;
+
+		if (day > 28 && day > lengthOfMonth(year, month))
+			return result.fail();
+
+		return result.succeed(toEpochDay(year, month, day));
+	}
+
+	private static boolean isLeap(int year) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch (month) {
+			case 2:
+				return isLeap(year) ? 29 : 28;
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+
+	/**
+	 * The arithmetic of {@link LocalDate#toEpochDay()}, for years 0 to 9999.
+	 */
+	private static long toEpochDay(int year, int month, int day) {
+		long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+		total += (367 * month - 362) / 12 + day - 1;
+
+		if (month > 2)
+			total -= isLeap(year) ? 1 : 2;
+
+		return total - DAYS_0000_TO_1970;
+	}
+
+	private static String monthDays(boolean leap) {
+		final StringBuilder table = new StringBuilder(366 * 6);
+		final int year = leap ? 2000 : 2001;
+
+		for (int month = 1; month <= 12; month++) {
+			for (int day = 1; day <= lengthOfMonth(year, month); day++) {
+				appendDigits(table, day, 2);
+				table.append('/');
+				appendDigits(table, month, 2);
+				table.append('/');
+			}
+		}
+
+		return table.toString();
+	}
+
+	private static void appendDigits(StringBuilder builder, int value, int width) {
+		final String digits = Integer.toString(value);
+
+		for (int i = digits.length(); i < width; i++)
+			builder.append('0');
+
+		builder.append(digits);
+	}
+}
@@ -0,0 +1,118 @@
+package tsi.too.ext;
+
+import java.util.Objects;
+
+/**
+ * A read-only view over a range of a {@link CharSequence} or {@code char[]}.
+ *
+ * <p>
+ * Creating a slice, or a slice of a slice, copies nothing; only
+ * {@link #toString()} does. The view reflects later changes to a mutable
+ * source, so it should only be kept while the source is left untouched.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ */
+public class CharSlice implements CharSequence {
+	private final CharSequence sequence;
+	private final char[] array;
+	private final int offset;
+	private final int length;
+
+	private CharSlice(CharSequence sequence, char[] array, int offset, int length) {
+		this.sequence = sequence;
+		this.array = array;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * Creates a view over a range of a {@code CharSequence}.
+	 *
+	 * @param source     the source sequence.
+	 * @param beginIndex the beginning index, inclusive.
+	 * @param endIndex   the ending index, exclusive.
+	 * @return the view.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static CharSlice of(final CharSequence source, final int beginIndex, final int endIndex) {
+		Objects.checkFromToIndex(beginIndex, endIndex, source.length());
+
+		if (source instanceof CharSlice) {
+			final CharSlice slice = (CharSlice) source;
+			return new CharSlice(slice.sequence, slice.array, slice.offset + beginIndex, endIndex - beginIndex);
+		}
+
+		return new CharSlice(source, null, beginIndex, endIndex - beginIndex);
+	}
+
+	/**
+	 * Creates a view over a range of a {@code char[]}.
+	 *
+	 * @param source the source array.
+	 * @param offset the index of the first char.
+	 * @param length the number of chars.
+	 * @return the view.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static CharSlice of(final char[] source, final int offset, final int length) {
+		Objects.checkFromIndexSize(offset, length, source.length);
+
+		return new CharSlice(null, source, offset, length);
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		Objects.checkIndex(index, length);
+
+		return array != null ? array[offset + index] : sequence.charAt(offset + index);
+	}
+
+	@Override
+	public CharSlice subSequence(int start, int end) {
+		Objects.checkFromToIndex(start, end, length);
+
+		return new CharSlice(sequence, array, offset + start, end - start);
+	}
+
+	/**
+	 * Checks whether this slice holds the same chars as a {@code CharSequence}.
+	 *
+	 * @param other the sequence to compare to.
+	 * @return true if both have the same length and chars.
+	 *
+	 * @since 0.1
+	 */
+	public boolean contentEquals(final CharSequence other) {
+		if (other == null || other.length() != length)
+			return false;
+
+		for (int i = 0; i < length; i++) {
+			if (charAt(i) != other.charAt(i))
+				return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		if (array != null)
+			return new String(array, offset, length);
+
+		if (sequence instanceof String)
+			return ((String) sequence).substring(offset, offset + length);
+
+		return new StringBuilder(length).append(sequence, offset, offset + length).toString();
+	}
+}
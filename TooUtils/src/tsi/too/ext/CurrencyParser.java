@@ -0,0 +1,261 @@
+package tsi.too.ext;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tsi.too.util.LocaleUtils;
+import tsi.too.util.LocaleUtils.FormatStyle;
+
+/**
+ * A hand-written, locale-aware parser for currency strings.
+ *
+ * <p>
+ * Accepts exactly what {@link StringExt#fromCurrencyString(String, Locale)}
+ * always did: every character other than an ASCII digit, {@code '.'} or
+ * {@code ','} is ignored, and the rest is read the way
+ * {@link NumberFormat#getNumberInstance(Locale)} parses it, stopping at the
+ * first separator that cannot continue the number. Only the separators of each
+ * locale are looked up, once, so parsing to cents allocates nothing.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ */
+public class CurrencyParser {
+
+	private static final char NO_GROUPING = '\uFFFF';
+
+	private static final long UNSCALED_LIMIT = (Long.MAX_VALUE - 9) / 10;
+
+	private static final ConcurrentHashMap<Locale, Separators> SEPARATORS = new ConcurrentHashMap<>();
+
+	/**
+	 * Parses a formatted Brazilian currency {@code CharSequence} to cents,
+	 * rounding {@link java.math.RoundingMode#HALF_UP HALF_UP}.
+	 *
+	 * @param text the text to be parsed.
+	 * @return the amount in cents.
+	 * @throws ParseException      if the text is malformed.
+	 * @throws ArithmeticException if the amount does not fit in a {@code long}.
+	 *
+	 * @since 0.1
+	 */
+	public static long parseBrazilianCents(final CharSequence text) throws ParseException {
+		return parseCents(text, LocaleUtils.BRAZILIAN_LOCALE);
+	}
+
+	/**
+	 * Parses a currency {@code CharSequence} to cents, rounding
+	 * {@link java.math.RoundingMode#HALF_UP HALF_UP}.
+	 *
+	 * @param text   the text to be parsed.
+	 * @param locale the base locale.
+	 * @return the amount in cents.
+	 * @throws ParseException      if the text is malformed.
+	 * @throws ArithmeticException if the amount does not fit in a {@code long}.
+	 *
+	 * @since 0.1
+	 */
+	public static long parseCents(final CharSequence text, final Locale locale) throws ParseException {
+		final Separators separators = separatorsOf(locale);
+
+		if (separators == null)
+			return Money.toCents(parseBigDecimal(text, locale));
+
+		long whole = 0;
+		long cents = 0;
+		int fractionDigits = 0;
+		boolean roundUp = false;
+		boolean sawDigit = false;
+		boolean sawDecimal = false;
+
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+
+			if (c >= '0' && c <= '9') {
+				sawDigit = true;
+
+				if (!sawDecimal) {
+					whole = Math.addExact(Math.multiplyExact(whole, 10), c - '0');
+				} else if (fractionDigits < 2) {
+					cents = cents * 10 + (c - '0');
+					fractionDigits++;
+				} else if (fractionDigits == 2) {
+					roundUp = c >= '5';
+					fractionDigits++;
+				}
+			} else if (c == '.' || c == ',') {
+				if (sawDecimal || (c != separators.decimal && c != separators.grouping))
+					break;
+
+				sawDecimal = c == separators.decimal;
+			}
+		}
+
+		if (!sawDigit)
+			throw unparseable(text);
+
+		if (fractionDigits == 1)
+			cents *= 10;
+
+		return Math.addExact(Math.multiplyExact(whole, 100), roundUp ? cents + 1 : cents);
+	}
+
+	/**
+	 * Parses a formatted Brazilian currency {@code CharSequence} as a
+	 * {@code BigDecimal}.
+	 *
+	 * @param text the text to be parsed.
+	 * @return the {@code BigDecimal} value represented by the text.
+	 * @throws ParseException if the text is malformed.
+	 *
+	 * @since 0.1
+	 */
+	public static BigDecimal parseBrazilianBigDecimal(final CharSequence text) throws ParseException {
+		return parseBigDecimal(text, LocaleUtils.BRAZILIAN_LOCALE);
+	}
+
+	/**
+	 * Parses a currency {@code CharSequence} as a {@code BigDecimal}, keeping every
+	 * digit and the scale {@link DecimalFormat} would produce.
+	 *
+	 * @param text   the text to be parsed.
+	 * @param locale the base locale.
+	 * @return the {@code BigDecimal} value represented by the text.
+	 * @throws ParseException if the text is malformed.
+	 *
+	 * @since 0.1
+	 */
+	public static BigDecimal parseBigDecimal(final CharSequence text, final Locale locale) throws ParseException {
+		final Separators separators = separatorsOf(locale);
+
+		if (separators == null)
+			return parseWithNumberFormat(text, locale);
+
+		long unscaled = 0;
+		int fractionDigits = 0;
+		boolean sawDigit = false;
+		boolean sawDecimal = false;
+
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+
+			if (c >= '0' && c <= '9') {
+				if (unscaled > UNSCALED_LIMIT)
+					return parseLongBigDecimal(text, separators);
+
+				sawDigit = true;
+				unscaled = unscaled * 10 + (c - '0');
+
+				if (sawDecimal)
+					fractionDigits++;
+			} else if (c == '.' || c == ',') {
+				if (sawDecimal || (c != separators.decimal && c != separators.grouping))
+					break;
+
+				sawDecimal = c == separators.decimal;
+			}
+		}
+
+		if (!sawDigit)
+			throw unparseable(text);
+
+		return BigDecimal.valueOf(unscaled, fractionDigits);
+	}
+
+	/**
+	 * Collects the digits of a number too long for a {@code long}.
+	 */
+	private static BigDecimal parseLongBigDecimal(final CharSequence text, final Separators separators) {
+		final StringBuilder digits = new StringBuilder(text.length());
+		int fractionDigits = 0;
+		boolean sawDecimal = false;
+
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+
+			if (c >= '0' && c <= '9') {
+				digits.append(c);
+
+				if (sawDecimal)
+					fractionDigits++;
+			} else if (c == '.' || c == ',') {
+				if (sawDecimal || (c != separators.decimal && c != separators.grouping))
+					break;
+
+				sawDecimal = c == separators.decimal;
+			}
+		}
+
+		return new BigDecimal(new BigInteger(digits.toString()), fractionDigits);
+	}
+
+	private static BigDecimal parseWithNumberFormat(final CharSequence text, final Locale locale)
+			throws ParseException {
+		final NumberFormat format = LocaleUtils.newNumberFormat(locale, FormatStyle.NUMBER);
+
+		if (format instanceof DecimalFormat) {
+			((DecimalFormat) format).setParseBigDecimal(true);
+		}
+
+		return (BigDecimal) format.parse(strip(text));
+	}
+
+	private static ParseException unparseable(final CharSequence text) {
+		return new ParseException("Unparseable number: \"" + strip(text) + "\"", 0);
+	}
+
+	/**
+	 * Drops every character other than an ASCII digit, {@code '.'} or {@code ','}.
+	 */
+	private static String strip(final CharSequence text) {
+		final StringBuilder stripped = new StringBuilder(text.length());
+
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+
+			if ((c >= '0' && c <= '9') || c == '.' || c == ',')
+				stripped.append(c);
+		}
+
+		return stripped.toString();
+	}
+
+	/**
+	 * Gets the separators of a locale, or null if its number format is not a
+	 * {@link DecimalFormat}.
+	 */
+	private static Separators separatorsOf(final Locale locale) {
+		Separators separators = SEPARATORS.get(locale);
+
+		if (separators == null) {
+			final NumberFormat format = LocaleUtils.getNumberFormat(locale, FormatStyle.NUMBER);
+
+			if (!(format instanceof DecimalFormat) || format.isParseIntegerOnly())
+				return null;
+
+			final DecimalFormatSymbols symbols = ((DecimalFormat) format).getDecimalFormatSymbols();
+			separators = new Separators(symbols.getDecimalSeparator(),
+					format.isGroupingUsed() ? symbols.getGroupingSeparator() : NO_GROUPING);
+			SEPARATORS.putIfAbsent(locale, separators);
+		}
+
+		return separators;
+	}
+
+	private static class Separators {
+		private final char decimal;
+		private final char grouping;
+
+		private Separators(char decimal, char grouping) {
+			this.decimal = decimal;
+			this.grouping = grouping;
+		}
+	}
+}
@@ -0,0 +1,396 @@
+package tsi.too.ext;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Parses fixed-width runs of ASCII digits, such as account numbers, cents or
+ * the fields of a {@code dd/MM/yyyy} date, straight from bytes.
+ *
+ * <p>
+ * Eight digits are checked and converted at once inside a single {@code long}
+ * word (SWAR), with three multiplications instead of eight, and no
+ * {@code String} is created per field. A field holds only digits: no sign, no
+ * white space and no separators. Leading zeros are allowed.
+ * </p>
+ *
+ * <p>
+ * Offsets of {@code ByteBuffer} fields are absolute, as in
+ * {@link ByteBuffer#get(int)}; the position, limit and byte order of the
+ * buffer are left untouched.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ */
+public class DigitParser {
+
+	/**
+	 * The widest field that always fits an {@code int} is 9 digits; 10 digits are
+	 * accepted and range checked.
+	 */
+	private static final int MAX_INT_WIDTH = 10;
+
+	/**
+	 * The widest field that always fits a {@code long} is 18 digits; 19 digits
+	 * are accepted and range checked.
+	 */
+	private static final int MAX_LONG_WIDTH = 19;
+
+	private static final long ZEROS = 0x3030_3030_3030_3030L;
+	private static final long HIGH_NIBBLES = 0xF0F0_F0F0_F0F0_F0F0L;
+	private static final long DIGIT_CARRY = 0x0606_0606_0606_0606L;
+
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L,
+			10_000_000L, 100_000_000L };
+
+	private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * Parses a field of a {@code byte[]} as an {@code int}.
+	 *
+	 * @param source the bytes to read.
+	 * @param offset the index of the first digit.
+	 * @param width  the number of digits, from 1 to 10.
+	 * @return the parsed value.
+	 * @throws NumberFormatException     if the field holds a non-digit or does
+	 *                                   not fit an {@code int}.
+	 * @throws IllegalArgumentException  if {@code width} is out of range.
+	 * @throws IndexOutOfBoundsException if the field is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static int parseInt(final byte[] source, final int offset, final int width)
+			throws NumberFormatException {
+		checkWidth(width, MAX_INT_WIDTH);
+		Objects.checkFromIndexSize(offset, width, source.length);
+
+		return toInt(parse(source, offset, width), source, offset, width);
+	}
+
+	/**
+	 * Parses a field of a {@code byte[]} as a {@code long}.
+	 *
+	 * @param source the bytes to read.
+	 * @param offset the index of the first digit.
+	 * @param width  the number of digits, from 1 to 19.
+	 * @return the parsed value.
+	 * @throws NumberFormatException     if the field holds a non-digit or does
+	 *                                   not fit a {@code long}.
+	 * @throws IllegalArgumentException  if {@code width} is out of range.
+	 * @throws IndexOutOfBoundsException if the field is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static long parseLong(final byte[] source, final int offset, final int width)
+			throws NumberFormatException {
+		checkWidth(width, MAX_LONG_WIDTH);
+		Objects.checkFromIndexSize(offset, width, source.length);
+
+		return toLong(parse(source, offset, width), source, offset, width);
+	}
+
+	/**
+	 * Parses many fields of the same width of a {@code byte[]} as {@code int}s.
+	 *
+	 * @param source      the bytes to read.
+	 * @param offsets     the index of the first digit of each field.
+	 * @param width       the number of digits of every field, from 1 to 10.
+	 * @param destination receives the value of {@code offsets[i]} at index
+	 *                    {@code i}.
+	 * @throws NumberFormatException     if a field holds a non-digit or does not
+	 *                                   fit an {@code int}.
+	 * @throws IllegalArgumentException  if {@code width} is out of range.
+	 * @throws IndexOutOfBoundsException if a field is out of bounds or
+	 *                                   {@code destination} is shorter than
+	 *                                   {@code offsets}.
+	 *
+	 * @since 0.1
+	 */
+	public static void parseInts(final byte[] source, final int[] offsets, final int width, final int[] destination)
+			throws NumberFormatException {
+		checkWidth(width, MAX_INT_WIDTH);
+		Objects.checkFromIndexSize(0, offsets.length, destination.length);
+
+		for (int i = 0; i < offsets.length; i++) {
+			final int offset = offsets[i];
+			Objects.checkFromIndexSize(offset, width, source.length);
+
+			destination[i] = toInt(parse(source, offset, width), source, offset, width);
+		}
+	}
+
+	/**
+	 * Parses many fields of the same width of a {@code byte[]} as {@code long}s.
+	 *
+	 * @param source      the bytes to read.
+	 * @param offsets     the index of the first digit of each field.
+	 * @param width       the number of digits of every field, from 1 to 19.
+	 * @param destination receives the value of {@code offsets[i]} at index
+	 *                    {@code i}.
+	 * @throws NumberFormatException     if a field holds a non-digit or does not
+	 *                                   fit a {@code long}.
+	 * @throws IllegalArgumentException  if {@code width} is out of range.
+	 * @throws IndexOutOfBoundsException if a field is out of bounds or
+	 *                                   {@code destination} is shorter than
+	 *                                   {@code offsets}.
+	 *
+	 * @since 0.1
+	 */
+	public static void parseLongs(final byte[] source, final int[] offsets, final int width,
+			final long[] destination) throws NumberFormatException {
+		checkWidth(width, MAX_LONG_WIDTH);
+		Objects.checkFromIndexSize(0, offsets.length, destination.length);
+
+		for (int i = 0; i < offsets.length; i++) {
+			final int offset = offsets[i];
+			Objects.checkFromIndexSize(offset, width, source.length);
+
+			destination[i] = toLong(parse(source, offset, width), source, offset, width);
+		}
+	}
+
+	/**
+	 * Parses many fields of the same width of a {@code ByteBuffer} as
+	 * {@code int}s.
+	 *
+	 * @param source      the buffer to read.
+	 * @param offsets     the absolute index of the first digit of each field.
+	 * @param width       the number of digits of every field, from 1 to 10.
+	 * @param destination receives the value of {@code offsets[i]} at index
+	 *                    {@code i}.
+	 * @throws NumberFormatException     if a field holds a non-digit or does not
+	 *                                   fit an {@code int}.
+	 * @throws IllegalArgumentException  if {@code width} is out of range.
+	 * @throws IndexOutOfBoundsException if a field is beyond the limit of the
+	 *                                   buffer or {@code destination} is shorter
+	 *                                   than {@code offsets}.
+	 *
+	 * @since 0.1
+	 */
+	public static void parseInts(final ByteBuffer source, final int[] offsets, final int width,
+			final int[] destination) throws NumberFormatException {
+		checkWidth(width, MAX_INT_WIDTH);
+		Objects.checkFromIndexSize(0, offsets.length, destination.length);
+
+		final boolean bigEndian = source.order() == ByteOrder.BIG_ENDIAN;
+
+		for (int i = 0; i < offsets.length; i++) {
+			final int offset = offsets[i];
+			Objects.checkFromIndexSize(offset, width, source.limit());
+
+			destination[i] = toInt(parse(source, bigEndian, offset, width), source, offset, width);
+		}
+	}
+
+	/**
+	 * Parses many fields of the same width of a {@code ByteBuffer} as
+	 * {@code long}s.
+	 *
+	 * @param source      the buffer to read.
+	 * @param offsets     the absolute index of the first digit of each field.
+	 * @param width       the number of digits of every field, from 1 to 19.
+	 * @param destination receives the value of {@code offsets[i]} at index
+	 *                    {@code i}.
+	 * @throws NumberFormatException     if a field holds a non-digit or does not
+	 *                                   fit a {@code long}.
+	 * @throws IllegalArgumentException  if {@code width} is out of range.
+	 * @throws IndexOutOfBoundsException if a field is beyond the limit of the
+	 *                                   buffer or {@code destination} is shorter
+	 *                                   than {@code offsets}.
+	 *
+	 * @since 0.1
+	 */
+	public static void parseLongs(final ByteBuffer source, final int[] offsets, final int width,
+			final long[] destination) throws NumberFormatException {
+		checkWidth(width, MAX_LONG_WIDTH);
+		Objects.checkFromIndexSize(0, offsets.length, destination.length);
+
+		final boolean bigEndian = source.order() == ByteOrder.BIG_ENDIAN;
+
+		for (int i = 0; i < offsets.length; i++) {
+			final int offset = offsets[i];
+			Objects.checkFromIndexSize(offset, width, source.limit());
+
+			destination[i] = toLong(parse(source, bigEndian, offset, width), source, offset, width);
+		}
+	}
+
+	/**
+	 * Parses a field chunk by chunk: the leading {@code width % 8} digits, then
+	 * whole words. Yields -1 for a non-digit and for a 19-digit overflow.
+	 */
+	private static long parse(final byte[] source, final int offset, final int width) {
+		final int end = offset + width;
+		int chunk = width & 7;
+
+		if (chunk == 0)
+			chunk = 8;
+
+		long value = 0;
+
+		for (int i = offset; i < end; i += chunk, chunk = 8) {
+			final int digits;
+
+			if (i + 8 <= source.length)
+				digits = parseWord((long) LONG_VIEW.get(source, i), chunk);
+			else if (i + chunk >= 8)
+				// near the end, the word ending at the chunk is read instead
+				digits = parseWord((long) LONG_VIEW.get(source, i + chunk - 8) >>> (64 - chunk * 8), chunk);
+			else
+				digits = parseScalar(source, i, chunk);
+
+			if (digits < 0 || (value = accumulate(value, digits, chunk)) < 0)
+				return -1;
+		}
+
+		return value;
+	}
+
+	private static long parse(final ByteBuffer source, final boolean bigEndian, final int offset, final int width) {
+		final int end = offset + width;
+		final int limit = source.limit();
+		int chunk = width & 7;
+
+		if (chunk == 0)
+			chunk = 8;
+
+		long value = 0;
+
+		for (int i = offset; i < end; i += chunk, chunk = 8) {
+			final int digits;
+
+			if (i + 8 <= limit) {
+				final long word = source.getLong(i);
+				digits = parseWord(bigEndian ? Long.reverseBytes(word) : word, chunk);
+			} else if (i + chunk >= 8) {
+				final long word = source.getLong(i + chunk - 8);
+				digits = parseWord((bigEndian ? Long.reverseBytes(word) : word) >>> (64 - chunk * 8), chunk);
+			} else {
+				digits = parseScalar(source, i, chunk);
+			}
+
+			if (digits < 0 || (value = accumulate(value, digits, chunk)) < 0)
+				return -1;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Converts the {@code count} low bytes of a little-endian word, the first
+	 * digit being the lowest byte, or yields -1 if one of them is not a digit.
+	 */
+	private static int parseWord(long word, final int count) {
+		if (count < 8) {
+			// the unused high bytes become leading zeros once shifted below the digits
+			final int shift = (8 - count) * 8;
+			word = (word << shift) | (ZEROS >>> (64 - shift));
+		}
+
+		// every byte must be 0x30..0x39: high nibble 3, and still 3 after adding 6
+		if ((word & HIGH_NIBBLES) != ZEROS || ((word + DIGIT_CARRY) & HIGH_NIBBLES) != ZEROS)
+			return -1;
+
+		word -= ZEROS;
+		word = word * 10 + (word >>> 8);
+		word = (((word & 0x0000_00FF_0000_00FFL) * (100 + (1_000_000L << 32)))
+				+ (((word >>> 16) & 0x0000_00FF_0000_00FFL) * (1 + (10_000L << 32)))) >>> 32;
+
+		return (int) word;
+	}
+
+	private static int parseScalar(final byte[] source, final int offset, final int count) {
+		int value = 0;
+
+		for (int i = offset; i < offset + count; i++) {
+			final int digit = source[i] - '0';
+
+			if (digit < 0 || digit > 9)
+				return -1;
+
+			value = value * 10 + digit;
+		}
+
+		return value;
+	}
+
+	private static int parseScalar(final ByteBuffer source, final int offset, final int count) {
+		int value = 0;
+
+		for (int i = offset; i < offset + count; i++) {
+			final int digit = source.get(i) - '0';
+
+			if (digit < 0 || digit > 9)
+				return -1;
+
+			value = value * 10 + digit;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Appends a chunk to the value, yielding -1 on overflow; only a 19-digit
+	 * field can get there.
+	 */
+	private static long accumulate(final long value, final int digits, final int count) {
+		final long multiplied = value * POWERS_OF_TEN[count];
+
+		if (value > Long.MAX_VALUE / POWERS_OF_TEN[count] || multiplied > Long.MAX_VALUE - digits)
+			return -1;
+
+		return multiplied + digits;
+	}
+
+	private static int toInt(final long value, final byte[] source, final int offset, final int width) {
+		if (value < 0 || value > Integer.MAX_VALUE)
+			throw forInput(new String(source, offset, width, StandardCharsets.ISO_8859_1));
+
+		return (int) value;
+	}
+
+	private static int toInt(final long value, final ByteBuffer source, final int offset, final int width) {
+		if (value < 0 || value > Integer.MAX_VALUE)
+			throw forInput(toString(source, offset, width));
+
+		return (int) value;
+	}
+
+	private static long toLong(final long value, final byte[] source, final int offset, final int width) {
+		if (value < 0)
+			throw forInput(new String(source, offset, width, StandardCharsets.ISO_8859_1));
+
+		return value;
+	}
+
+	private static long toLong(final long value, final ByteBuffer source, final int offset, final int width) {
+		if (value < 0)
+			throw forInput(toString(source, offset, width));
+
+		return value;
+	}
+
+	private static String toString(final ByteBuffer source, final int offset, final int width) {
+		final byte[] bytes = new byte[width];
+
+		for (int i = 0; i < width; i++)
+			bytes[i] = source.get(offset + i);
+
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+
+	private static NumberFormatException forInput(final String field) {
+		return new NumberFormatException("For input string: \"" + field + "\"");
+	}
+
+	private static void checkWidth(final int width, final int max) {
+		if (width < 1 || width > max)
+			throw new IllegalArgumentException("width must be between 1 and " + max);
+	}
+}
@@ -0,0 +1,525 @@
+package tsi.too.ext;
+
+import java.math.BigInteger;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Objects;
+
+import tsi.too.util.LocaleUtils;
+
+/**
+ * A fast, correctly rounded {@code double} parser for decimal text written
+ * with any decimal and grouping separators.
+ *
+ * <p>
+ * Up to 19 significant digits are gathered into a {@code long} and converted
+ * with Clinger's exact fast path or, failing that, the Eisel-Lemire algorithm
+ * (the one behind {@code fast_double_parser}). The rare inputs neither can
+ * settle, along with {@code NaN}, {@code Infinity}, hexadecimal and suffixed
+ * literals, are handed to {@link Double#parseDouble(String)}, so every result
+ * equals what {@code Double.parseDouble} returns for the same number written
+ * with a {@code '.'} decimal separator and no grouping.
+ * </p>
+ *
+ * <p>
+ * The {@code tryParse*} methods report malformed input through a
+ * {@link ParseResult} instead of an exception.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ */
+public class DoubleParser {
+
+	private static final int MIN_POWER_OF_TEN = -325;
+	private static final int MAX_POWER_OF_TEN = 308;
+	private static final int MAX_SIGNIFICANT_DIGITS = 19;
+	private static final int MAX_EXPONENT_DIGITS_VALUE = 100_000;
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	/**
+	 * A signaling NaN pattern the parser never produces, marking malformed input.
+	 */
+	private static final long INVALID = 0x7FF0_0000_0000_0001L;
+
+	private static final int THROWING = 0;
+	private static final int TRYING = 1;
+	private static final int TRYING_PLAIN = 2;
+
+	private static final double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * The 128 most significant bits of 5<sup>q</sup> (or of its reciprocal for
+	 * negative q), truncated, split in high and low halves.
+	 */
+	private static final long[] POWER_OF_FIVE_HIGH = new long[MAX_POWER_OF_TEN - MIN_POWER_OF_TEN + 1];
+	private static final long[] POWER_OF_FIVE_LOW = new long[MAX_POWER_OF_TEN - MIN_POWER_OF_TEN + 1];
+
+	static {
+		final BigInteger five = BigInteger.valueOf(5);
+
+		for (int q = MIN_POWER_OF_TEN; q <= MAX_POWER_OF_TEN; q++) {
+			BigInteger mantissa;
+
+			if (q >= 0) {
+				final BigInteger power = five.pow(q);
+				final int shift = power.bitLength() - 128;
+				mantissa = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+			} else {
+				final BigInteger power = five.pow(-q);
+				mantissa = BigInteger.ONE.shiftLeft(127 + power.bitLength()).divide(power);
+			}
+
+			POWER_OF_FIVE_HIGH[q - MIN_POWER_OF_TEN] = mantissa.shiftRight(64).longValue();
+			POWER_OF_FIVE_LOW[q - MIN_POWER_OF_TEN] = mantissa.longValue();
+		}
+	}
+
+	/**
+	 * Parses a {@code CharSequence} written with {@code '.'} as decimal separator
+	 * and {@code ','} as grouping separator.
+	 *
+	 * @param text the text to be parsed.
+	 * @return the parsed {@code double}.
+	 * @throws NumberFormatException if the text is not a number.
+	 *
+	 * @since 0.1
+	 */
+	public static double parse(final CharSequence text) throws NumberFormatException {
+		return parse(text, 0, text.length(), '.', ',');
+	}
+
+	/**
+	 * Parses a {@code CharSequence} written with the separators of a locale.
+	 *
+	 * @param text   the text to be parsed.
+	 * @param locale the locale whose separators are used.
+	 * @return the parsed {@code double}.
+	 * @throws NumberFormatException if the text is not a number.
+	 *
+	 * @since 0.1
+	 */
+	public static double parse(final CharSequence text, final Locale locale) throws NumberFormatException {
+		final DecimalFormatSymbols symbols = LocaleUtils.getDecimalFormatSymbols(locale);
+
+		return parse(text, 0, text.length(), symbols.getDecimalSeparator(), symbols.getGroupingSeparator());
+	}
+
+	/**
+	 * Parses a range of a {@code CharSequence} written with the given separators.
+	 * Grouping separators are accepted anywhere in the integer part.
+	 *
+	 * @param text              the text to be parsed.
+	 * @param beginIndex        the beginning index, inclusive.
+	 * @param endIndex          the ending index, exclusive.
+	 * @param decimalSeparator  the decimal separator.
+	 * @param groupingSeparator the grouping separator.
+	 * @return the parsed {@code double}.
+	 * @throws NumberFormatException     if the range is not a number.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static double parse(final CharSequence text, final int beginIndex, final int endIndex,
+			final char decimalSeparator, final char groupingSeparator) throws NumberFormatException {
+		Objects.checkFromToIndex(beginIndex, endIndex, text.length());
+
+		return Double.longBitsToDouble(
+				parseBits(text, beginIndex, endIndex, decimalSeparator, groupingSeparator, THROWING));
+	}
+
+	/**
+	 * Parses a range of a {@code CharSequence} written with the given separators,
+	 * as {@link #parse(CharSequence, int, int, char, char)} does, without throwing.
+	 *
+	 * @param text              the text to be parsed.
+	 * @param beginIndex        the beginning index, inclusive.
+	 * @param endIndex          the ending index, exclusive.
+	 * @param decimalSeparator  the decimal separator.
+	 * @param groupingSeparator the grouping separator.
+	 * @param result            receives the parsed {@code double}.
+	 * @return true if the range is a number.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static boolean tryParse(final CharSequence text, final int beginIndex, final int endIndex,
+			final char decimalSeparator, final char groupingSeparator, final ParseResult result) {
+		Objects.checkFromToIndex(beginIndex, endIndex, text.length());
+
+		final long bits = parseBits(text, beginIndex, endIndex, decimalSeparator, groupingSeparator, TRYING);
+
+		return bits == INVALID ? result.fail() : result.succeed(Double.longBitsToDouble(bits));
+	}
+
+	/**
+	 * Parses a range into the raw bits of a {@code double}. Depending on the mode,
+	 * malformed input throws or yields {@link #INVALID}.
+	 */
+	private static long parseBits(final CharSequence text, final int beginIndex, final int endIndex,
+			final char decimalSeparator, final char groupingSeparator, final int mode) {
+		int i = beginIndex;
+		int end = endIndex;
+
+		// the same white space Double.parseDouble trims
+		while (i < end && text.charAt(i) <= ' ')
+			i++;
+
+		while (end > i && text.charAt(end - 1) <= ' ')
+			end--;
+
+		boolean negative = false;
+
+		if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+'))
+			negative = text.charAt(i++) == '-';
+
+		long mantissa = 0;
+		int significantDigits = 0;
+		int exponent = 0;
+		boolean sawDigit = false;
+		boolean sawDecimal = false;
+		boolean truncated = false;
+
+		for (; i < end; i++) {
+			final char c = text.charAt(i);
+
+			if (c >= '0' && c <= '9') {
+				sawDigit = true;
+
+				if (significantDigits < MAX_SIGNIFICANT_DIGITS) {
+					mantissa = mantissa * 10 + (c - '0');
+
+					if (mantissa != 0)
+						significantDigits++;
+
+					if (sawDecimal)
+						exponent--;
+				} else {
+					truncated |= c != '0';
+
+					if (!sawDecimal)
+						exponent++;
+				}
+			} else if (c == decimalSeparator && !sawDecimal) {
+				sawDecimal = true;
+			} else if (c != groupingSeparator || sawDecimal || !sawDigit) {
+				break;
+			}
+		}
+
+		if (sawDigit && i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+			int exponentSign = 1;
+
+			if (++i < end && (text.charAt(i) == '-' || text.charAt(i) == '+'))
+				exponentSign = text.charAt(i++) == '-' ? -1 : 1;
+
+			final int exponentStart = i;
+			int explicitExponent = 0;
+
+			for (; i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+				if (explicitExponent < MAX_EXPONENT_DIGITS_VALUE)
+					explicitExponent = explicitExponent * 10 + (text.charAt(i) - '0');
+			}
+
+			if (i == exponentStart)
+				sawDigit = false;
+
+			exponent += exponentSign * explicitExponent;
+		}
+
+		if (!sawDigit || i != end) {
+			if (mode == THROWING)
+				return Double.doubleToRawLongBits(
+						parseSlowly(text, beginIndex, endIndex, decimalSeparator, groupingSeparator));
+
+			return parseUnusualBits(text, beginIndex, endIndex, decimalSeparator, groupingSeparator, mode);
+		}
+
+		if (mantissa == 0)
+			return negative ? Long.MIN_VALUE : 0;
+
+		if (!truncated && Long.compareUnsigned(mantissa, MAX_EXACT_MANTISSA) <= 0 && exponent >= -22
+				&& exponent <= 22) {
+			// Clinger: both operands are exact, so the one rounding is correct
+			final double value = exponent < 0 ? mantissa / EXACT_POWERS_OF_TEN[-exponent]
+					: mantissa * EXACT_POWERS_OF_TEN[exponent];
+
+			return Double.doubleToRawLongBits(negative ? -value : value);
+		}
+
+		final long bits = eiselLemire(mantissa, exponent);
+
+		// a truncated mantissa is only safe when rounding it up lands on the same double;
+		// the input is well formed by now, so Double.parseDouble will not throw
+		if (bits < 0 || (truncated && bits != eiselLemire(mantissa + 1, exponent)))
+			return Double.doubleToRawLongBits(
+					parseSlowly(text, beginIndex, endIndex, decimalSeparator, groupingSeparator));
+
+		return negative ? bits | Long.MIN_VALUE : bits;
+	}
+
+	/**
+	 * Checks, without throwing, the forms Double.parseDouble accepts beyond plain
+	 * decimals: {@code NaN}, {@code Infinity}, a trailing type suffix and
+	 * hexadecimal literals.
+	 */
+	private static long parseUnusualBits(final CharSequence text, final int beginIndex, final int endIndex,
+			final char decimalSeparator, final char groupingSeparator, final int mode) {
+		if (mode == TRYING_PLAIN)
+			return INVALID;
+
+		if (groupingSeparator != decimalSeparator && indexOf(text, beginIndex, endIndex, groupingSeparator) >= 0) {
+			// a grouping separator out of place is dropped, as the slow path does
+			final String normalized = normalize(text, beginIndex, endIndex, decimalSeparator, groupingSeparator);
+
+			return parseBits(normalized, 0, normalized.length(), '.', '.', mode);
+		}
+
+		int i = beginIndex;
+		int end = endIndex;
+
+		while (i < end && text.charAt(i) <= ' ')
+			i++;
+
+		while (end > i && text.charAt(end - 1) <= ' ')
+			end--;
+
+		final int unsigned = i < end && (text.charAt(i) == '-' || text.charAt(i) == '+') ? i + 1 : i;
+
+		if (regionEquals(text, unsigned, end, "NaN"))
+			return Double.doubleToRawLongBits(Double.NaN);
+
+		if (regionEquals(text, unsigned, end, "Infinity"))
+			return Double.doubleToRawLongBits(
+					text.charAt(i) == '-' ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+
+		if (end - i >= 2 && text.charAt(end - 2) > ' ') {
+			final char suffix = text.charAt(end - 1);
+
+			if (suffix == 'd' || suffix == 'D' || suffix == 'f' || suffix == 'F') {
+				final long bits = parseBits(text, i, end - 1, decimalSeparator, groupingSeparator, TRYING_PLAIN);
+
+				if (bits != INVALID)
+					return bits;
+			}
+		}
+
+		for (int j = unsigned; j < end; j++) {
+			if (text.charAt(j) == 'x' || text.charAt(j) == 'X') {
+				// hexadecimal literals are rare enough to leave to the JDK
+				try {
+					return Double.doubleToRawLongBits(
+							parseSlowly(text, beginIndex, endIndex, decimalSeparator, groupingSeparator));
+				} catch (NumberFormatException ex) {
+					return INVALID;
+				}
+			}
+		}
+
+		return INVALID;
+	}
+
+	private static boolean regionEquals(final CharSequence text, final int beginIndex, final int endIndex,
+			final String expected) {
+		if (endIndex - beginIndex != expected.length())
+			return false;
+
+		for (int i = 0; i < expected.length(); i++) {
+			if (text.charAt(beginIndex + i) != expected.charAt(i))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Parses a {@code CharSequence}, working out its decimal and grouping
+	 * separators.
+	 *
+	 * <p>
+	 * When both {@code '.'} and {@code ','} appear, the last one is the decimal
+	 * separator. A separator that appears more than once is the grouping one. A
+	 * single {@code ','} is the decimal separator unless exactly three digits
+	 * follow it, as in {@code "1,234"}, and a single {@code '.'} is always the
+	 * decimal separator. So {@code "1.234,56"}, {@code "1,234.56"} and
+	 * {@code "1,5"} all read as expected.
+	 * </p>
+	 *
+	 * @param text       the text to be parsed.
+	 * @param beginIndex the beginning index, inclusive.
+	 * @param endIndex   the ending index, exclusive.
+	 * @return the parsed {@code double}.
+	 * @throws NumberFormatException     if the range is not a number.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static double parseAutoDetecting(final CharSequence text, final int beginIndex, final int endIndex)
+			throws NumberFormatException {
+		return isCommaDecimal(text, beginIndex, endIndex) ? parse(text, beginIndex, endIndex, ',', '.')
+				: parse(text, beginIndex, endIndex, '.', ',');
+	}
+
+	/**
+	 * Parses a {@code CharSequence}, working out its separators as
+	 * {@link #parseAutoDetecting(CharSequence, int, int)} does, without throwing.
+	 *
+	 * @param text       the text to be parsed.
+	 * @param beginIndex the beginning index, inclusive.
+	 * @param endIndex   the ending index, exclusive.
+	 * @param result     receives the parsed {@code double}.
+	 * @return true if the range is a number.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 *
+	 * @since 0.1
+	 */
+	public static boolean tryParseAutoDetecting(final CharSequence text, final int beginIndex, final int endIndex,
+			final ParseResult result) {
+		return isCommaDecimal(text, beginIndex, endIndex) ? tryParse(text, beginIndex, endIndex, ',', '.', result)
+				: tryParse(text, beginIndex, endIndex, '.', ',', result);
+	}
+
+	private static boolean isCommaDecimal(final CharSequence text, final int beginIndex, final int endIndex) {
+		Objects.checkFromToIndex(beginIndex, endIndex, text.length());
+
+		int lastDot = -1;
+		int lastComma = -1;
+		int dots = 0;
+		int commas = 0;
+
+		for (int i = beginIndex; i < endIndex; i++) {
+			final char c = text.charAt(i);
+
+			if (c == '.') {
+				lastDot = i;
+				dots++;
+			} else if (c == ',') {
+				lastComma = i;
+				commas++;
+			}
+		}
+
+		if (dots > 0 && commas > 0)
+			return lastComma > lastDot;
+
+		if (commas == 1)
+			return digitsAfter(text, lastComma, endIndex) != 3;
+
+		return dots > 1;
+	}
+
+	private static int digitsAfter(final CharSequence text, final int index, final int endIndex) {
+		int i = index + 1;
+
+		while (i < endIndex && text.charAt(i) >= '0' && text.charAt(i) <= '9')
+			i++;
+
+		return i - index - 1;
+	}
+
+	/**
+	 * Rewrites the range with a {@code '.'} decimal separator and no grouping and
+	 * lets {@link Double#parseDouble(String)} settle it.
+	 */
+	private static double parseSlowly(final CharSequence text, final int beginIndex, final int endIndex,
+			final char decimalSeparator, final char groupingSeparator) {
+		return Double.parseDouble(normalize(text, beginIndex, endIndex, decimalSeparator, groupingSeparator));
+	}
+
+	/**
+	 * Rewrites a range the way Double.parseDouble expects it: the decimal
+	 * separator becomes {@code '.'} and grouping separators are dropped.
+	 */
+	private static String normalize(final CharSequence text, final int beginIndex, final int endIndex,
+			final char decimalSeparator, final char groupingSeparator) {
+		final StringBuilder normalized = new StringBuilder(endIndex - beginIndex);
+
+		for (int i = beginIndex; i < endIndex; i++) {
+			final char c = text.charAt(i);
+
+			if (c == decimalSeparator)
+				normalized.append('.');
+			else if (c != groupingSeparator)
+				normalized.append(c);
+		}
+
+		return normalized.toString();
+	}
+
+	private static int indexOf(final CharSequence text, final int beginIndex, final int endIndex, final char c) {
+		for (int i = beginIndex; i < endIndex; i++) {
+			if (text.charAt(i) == c)
+				return i;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Computes the bits of the positive double nearest to
+	 * {@code mantissa * 10^exponent}, or -1 when the answer cannot be told apart
+	 * with 128 bits of precision.
+	 */
+	private static long eiselLemire(final long mantissa, final int power) {
+		if (power < MIN_POWER_OF_TEN || power > MAX_POWER_OF_TEN)
+			return -1;
+
+		final long factorHigh = POWER_OF_FIVE_HIGH[power - MIN_POWER_OF_TEN];
+		final long exponent = (((152170L + 65536L) * power) >> 16) + 1023 + 64;
+
+		int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+		final long shifted = mantissa << leadingZeros;
+
+		long upper = unsignedMultiplyHigh(shifted, factorHigh);
+		long lower = shifted * factorHigh;
+
+		// only then may the truncated low half of the factor change the leading 55 bits
+		if ((upper & 0x1FF) == 0x1FF && Long.compareUnsigned(lower + shifted, lower) < 0) {
+			final long factorLow = POWER_OF_FIVE_LOW[power - MIN_POWER_OF_TEN];
+			final long productLow = shifted * factorLow;
+			final long productMiddle2 = unsignedMultiplyHigh(shifted, factorLow);
+			final long productMiddle = lower + productMiddle2;
+			long productHigh = upper;
+
+			if (Long.compareUnsigned(productMiddle, lower) < 0)
+				productHigh++;
+
+			if (productMiddle + 1 == 0 && (productHigh & 0x1FF) == 0x1FF
+					&& Long.compareUnsigned(productLow + shifted, productLow) < 0)
+				return -1;
+
+			upper = productHigh;
+			lower = productMiddle;
+		}
+
+		final long upperBit = upper >>> 63;
+		long significand = upper >>> (upperBit + 9);
+		leadingZeros += (int) (1 ^ upperBit);
+
+		// possibly halfway between two doubles: round-half-even needs more precision
+		if ((upper & 0x1FF) == 0x1FF || ((upper & 0x1FF) == 0 && (significand & 3) == 1))
+			return -1;
+
+		significand += 1;
+		significand >>>= 1;
+
+		if (significand >= (1L << 53)) {
+			significand = 1L << 52;
+			leadingZeros--;
+		}
+
+		significand &= ~(1L << 52);
+		final long realExponent = exponent - leadingZeros;
+
+		// subnormal and overflowing results are left to Double.parseDouble
+		if (realExponent < 1 || realExponent > 2046)
+			return -1;
+
+		return significand | realExponent << 52;
+	}
+
+	private static long unsignedMultiplyHigh(final long x, final long y) {
+		return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+	}
+}
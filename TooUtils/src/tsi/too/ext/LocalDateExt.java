@@ -1,13 +1,15 @@
 package tsi.too.ext;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Objects;
 
 /**
  * Convenience class for common {@link LocalDate} operations.
  *  
  * @author Lucas Cristovam
- * @version 0.1
+ * @version 0.2
  */
 public class LocalDateExt {
 	/**
@@ -25,7 +27,115 @@ public class LocalDateExt {
 		Objects.requireNonNull(startDateInclusive);
 		Objects.requireNonNull(endDateInclusive);
 		
-		return (date.isEqual(startDateInclusive) || date.isEqual(endDateInclusive)) 
-				|| date.isAfter(startDateInclusive) && date.isBefore(endDateInclusive);
+		return isInPeriod(date.toEpochDay(), startDateInclusive.toEpochDay(), endDateInclusive.toEpochDay());
+	}
+
+	/**
+	 * Checks whether a day is between two (inclusive) days, all given as epoch
+	 * days ({@link LocalDate#toEpochDay()}).
+	 *
+	 * <p>
+	 * Matches {@link #isInPeriod(LocalDate, LocalDate, LocalDate)}: when the
+	 * start comes after the end, only the two days themselves are in the period.
+	 * </p>
+	 *
+	 * @param epochDay the day to be verified.
+	 * @param startEpochDayInclusive the start day of the target period.
+	 * @param endEpochDayInclusive the end day of the target period.
+	 * @return true if the day is between or is equal to at least one of the days.
+	 *
+	 * @since 0.2
+	 */
+	public static boolean isInPeriod(long epochDay, long startEpochDayInclusive, long endEpochDayInclusive) {
+		return epochDay == startEpochDayInclusive || epochDay == endEpochDayInclusive
+				|| epochDay > startEpochDayInclusive && epochDay < endEpochDayInclusive;
+	}
+
+	/**
+	 * Converts dates to epoch days, for use with the bulk period checks.
+	 *
+	 * @param dates the dates to be converted.
+	 * @return the epoch day of each date, in the same order.
+	 * @throws NullPointerException if a date is null.
+	 * @throws ArithmeticException if a date is beyond the {@code int} range of
+	 *                             epoch days, about 5.8 million years.
+	 *
+	 * @since 0.2
+	 */
+	public static int[] toEpochDays(LocalDate... dates) {
+		final int[] epochDays = new int[dates.length];
+
+		for (int i = 0; i < dates.length; i++)
+			epochDays[i] = Math.toIntExact(dates[i].toEpochDay());
+
+		return epochDays;
+	}
+
+	/**
+	 * Checks every epoch day of an array against a period, with the semantics of
+	 * {@link #isInPeriod(long, long, long)}.
+	 *
+	 * @param epochDays the days to be verified.
+	 * @param startEpochDayInclusive the start day of the target period.
+	 * @param endEpochDayInclusive the end day of the target period.
+	 * @return a {@code BitSet} whose bit {@code i} is set if {@code epochDays[i]}
+	 *         is in the period.
+	 *
+	 * @since 0.2
+	 */
+	public static BitSet filterInPeriod(int[] epochDays, long startEpochDayInclusive, long endEpochDayInclusive) {
+		final long[] words = new long[(epochDays.length + 63) >>> 6];
+
+		if (startEpochDayInclusive <= endEpochDayInclusive) {
+			final long span = endEpochDayInclusive - startEpochDayInclusive;
+
+			for (int i = 0; i < epochDays.length; i++) {
+				// one unsigned comparison covers both bounds and has no branch
+				final long inPeriod = Long.compareUnsigned(epochDays[i] - startEpochDayInclusive, span) <= 0 ? 1 : 0;
+				words[i >>> 6] |= inPeriod << i;
+			}
+		} else {
+			for (int i = 0; i < epochDays.length; i++) {
+				final long inPeriod = epochDays[i] == startEpochDayInclusive || epochDays[i] == endEpochDayInclusive
+						? 1 : 0;
+				words[i >>> 6] |= inPeriod << i;
+			}
+		}
+
+		return BitSet.valueOf(words);
+	}
+
+	/**
+	 * Finds the indices of the epoch days of an array that are in a period, with
+	 * the semantics of {@link #isInPeriod(long, long, long)}.
+	 *
+	 * @param epochDays the days to be verified.
+	 * @param startEpochDayInclusive the start day of the target period.
+	 * @param endEpochDayInclusive the end day of the target period.
+	 * @return the indices of the days in the period, in ascending order.
+	 *
+	 * @since 0.2
+	 */
+	public static int[] indicesInPeriod(int[] epochDays, long startEpochDayInclusive, long endEpochDayInclusive) {
+		final int[] indices = new int[epochDays.length];
+		int count = 0;
+
+		if (startEpochDayInclusive <= endEpochDayInclusive) {
+			final long span = endEpochDayInclusive - startEpochDayInclusive;
+
+			for (int i = 0; i < epochDays.length; i++) {
+				// every index is written, but only those in the period are kept
+				indices[count] = i;
+				count += Long.compareUnsigned(epochDays[i] - startEpochDayInclusive, span) <= 0 ? 1 : 0;
+			}
+		} else {
+			for (int i = 0; i < epochDays.length; i++) {
+				indices[count] = i;
+				count += epochDays[i] == startEpochDayInclusive || epochDays[i] == endEpochDayInclusive ? 1 : 0;
+			}
+		}
+
+		return count == indices.length ? indices : Arrays.copyOf(indices, count);
 	}
 }
+
@@ -0,0 +1,447 @@
+package tsi.too.ext;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.ParseException;
+
+/**
+ * An immutable amount of Brazilian reais backed by a {@code long} number of
+ * cents.
+ *
+ * <p>
+ * All arithmetic is exact and throws {@link ArithmeticException} on overflow.
+ * Whenever a value must be rounded to cents, {@link RoundingMode#HALF_UP} is
+ * used, the same rounding as the currency fields created by
+ * {@link tsi.too.util.UiUtils#createCurrencyFormatterFactory(Double, Double)}.
+ * </p>
+ *
+ * <p>
+ * The static {@code *Cents} methods offer the same operations over raw
+ * {@code long} cents, so amounts can be stored in primitive arrays and
+ * collections without boxing.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ */
+public class Money implements Comparable<Money> {
+
+	/**
+	 * The zero amount.
+	 *
+	 * @since 0.1
+	 */
+	public static final Money ZERO = new Money(0);
+
+	private static final int SCALE = 2;
+	private static final double EXACT_DOUBLE_LIMIT = 0x1p46;
+
+	private final long cents;
+
+	private Money(long cents) {
+		this.cents = cents;
+	}
+
+	/**
+	 * Obtains an amount from a number of cents.
+	 *
+	 * @param cents the amount in cents.
+	 * @return the {@code Money}.
+	 *
+	 * @since 0.1
+	 */
+	public static Money ofCents(final long cents) {
+		return cents == 0 ? ZERO : new Money(cents);
+	}
+
+	/**
+	 * Obtains an amount from a {@code BigDecimal}, rounding it to cents.
+	 *
+	 * @param value the amount.
+	 * @return the {@code Money}.
+	 * @throws ArithmeticException if the amount does not fit in a {@code long}
+	 *                             number of cents.
+	 *
+	 * @since 0.1
+	 */
+	public static Money of(final BigDecimal value) {
+		return ofCents(toCents(value));
+	}
+
+	/**
+	 * Obtains an amount from a {@code double}, rounding its exact binary value to
+	 * cents with {@link RoundingMode#HALF_UP}, so 0.125 becomes 13 cents, where a
+	 * currency {@link java.text.DecimalFormat} shows "0,12".
+	 *
+	 * @param value the amount.
+	 * @return the {@code Money}.
+	 * @throws ArithmeticException if the amount is not finite or does not fit in a
+	 *                             {@code long} number of cents.
+	 *
+	 * @since 0.1
+	 */
+	public static Money of(final double value) {
+		return ofCents(toCents(value));
+	}
+
+	/**
+	 * Parses a formatted Brazilian currency {@code String}, as accepted by
+	 * {@link StringExt#fromBraziliaCurrencyString(String)}.
+	 *
+	 * @param text the text to be parsed.
+	 * @return the {@code Money}.
+	 * @throws ParseException      if the text is malformed.
+	 * @throws ArithmeticException if the amount does not fit in a {@code long}
+	 *                             number of cents.
+	 *
+	 * @since 0.1
+	 */
+	public static Money parse(final CharSequence text) throws ParseException {
+		return ofCents(parseCents(text));
+	}
+
+	/**
+	 * Gets the amount in cents.
+	 *
+	 * @return the number of cents.
+	 *
+	 * @since 0.1
+	 */
+	public long getCents() {
+		return cents;
+	}
+
+	/**
+	 * Converts this amount to a {@code BigDecimal} with scale 2.
+	 *
+	 * @return the amount as {@code BigDecimal}.
+	 *
+	 * @since 0.1
+	 */
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(cents, SCALE);
+	}
+
+	/**
+	 * Gets the signum of this amount.
+	 *
+	 * @return -1, 0, or 1 as this amount is negative, zero, or positive.
+	 *
+	 * @since 0.1
+	 */
+	public int signum() {
+		return Long.signum(cents);
+	}
+
+	/**
+	 * Checks whether this amount is zero.
+	 *
+	 * @return true if this amount is zero.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isZero() {
+		return cents == 0;
+	}
+
+	/**
+	 * Checks whether this amount is less than zero.
+	 *
+	 * @return true if this amount is negative.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isNegative() {
+		return cents < 0;
+	}
+
+	/**
+	 * Returns the sum of this amount and another one.
+	 *
+	 * @param other the amount to add.
+	 * @return the resulting {@code Money}.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public Money plus(final Money other) {
+		return ofCents(addCents(cents, other.cents));
+	}
+
+	/**
+	 * Returns the difference between this amount and another one.
+	 *
+	 * @param other the amount to subtract.
+	 * @return the resulting {@code Money}.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public Money minus(final Money other) {
+		return ofCents(subtractCents(cents, other.cents));
+	}
+
+	/**
+	 * Returns this amount multiplied by an integer factor.
+	 *
+	 * @param factor the factor.
+	 * @return the resulting {@code Money}.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public Money times(final long factor) {
+		return ofCents(multiplyCents(cents, factor));
+	}
+
+	/**
+	 * Returns this amount multiplied by a decimal factor, rounded to cents.
+	 *
+	 * @param factor the factor, such as a rate.
+	 * @return the resulting {@code Money}.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public Money times(final BigDecimal factor) {
+		return ofCents(multiplyCents(cents, factor));
+	}
+
+	/**
+	 * Returns this amount divided by an integer divisor, rounded to cents.
+	 *
+	 * @param divisor the divisor.
+	 * @return the resulting {@code Money}.
+	 * @throws ArithmeticException if the divisor is zero or the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public Money dividedBy(final long divisor) {
+		return ofCents(divideCents(cents, divisor));
+	}
+
+	/**
+	 * Returns the negation of this amount.
+	 *
+	 * @return the resulting {@code Money}.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public Money negate() {
+		return ofCents(Math.negateExact(cents));
+	}
+
+	/**
+	 * Returns the absolute value of this amount.
+	 *
+	 * @return the resulting {@code Money}.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public Money abs() {
+		return cents < 0 ? negate() : this;
+	}
+
+	/**
+	 * Formats this amount as Brazilian currency.
+	 *
+	 * @return a String formatted as Brazilian currency.
+	 *
+	 * @since 0.1
+	 */
+	public String format() {
+		return formatCents(cents);
+	}
+
+	/**
+	 * Appends this amount formatted as Brazilian currency.
+	 *
+	 * @param target the target {@code StringBuilder}.
+	 * @return the {@code target}.
+	 *
+	 * @since 0.1
+	 */
+	public StringBuilder appendTo(final StringBuilder target) {
+		return BrazilianCurrencyFormatter.appendCents(target, cents);
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		return Long.compare(cents, other.cents);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof Money && ((Money) obj).cents == cents;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(cents);
+	}
+
+	@Override
+	public String toString() {
+		return format();
+	}
+
+	/**
+	 * Converts a {@code BigDecimal} to cents, rounding it.
+	 *
+	 * @param value the amount.
+	 * @return the amount in cents.
+	 * @throws ArithmeticException if the amount does not fit in a {@code long}.
+	 *
+	 * @since 0.1
+	 */
+	public static long toCents(final BigDecimal value) {
+		return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Converts a {@code double} to cents, rounding its exact binary value with
+	 * {@link RoundingMode#HALF_UP}, unlike the {@link RoundingMode#HALF_EVEN} of
+	 * {@link java.text.DecimalFormat}.
+	 *
+	 * @param value the amount.
+	 * @return the amount in cents.
+	 * @throws ArithmeticException if the amount is not finite or does not fit in a
+	 *                             {@code long}.
+	 *
+	 * @since 0.1
+	 */
+	public static long toCents(final double value) {
+		if (!Double.isFinite(value))
+			throw new ArithmeticException("Not a finite amount: " + value);
+
+		final double abs = Math.abs(value);
+
+		// from here on a cent is no finer than the double spacing, and DecimalFormat
+		// rounds the shortest decimal representation instead of the exact binary value
+		if (abs >= EXACT_DOUBLE_LIMIT)
+			return toCents(BigDecimal.valueOf(value));
+
+		// both subtractions below are exact, so only the cents need rounding
+		final long whole = (long) abs;
+		final double fraction = abs - whole;
+		final double scaled = fraction * 100;
+		final double error = Math.fma(fraction, 100, -scaled);
+		final double floor = Math.floor(scaled);
+		final double remainder = scaled - floor;
+		long cents = whole * 100 + (long) floor;
+
+		if (remainder > 0.5 || (remainder == 0.5 && error >= 0))
+			cents++;
+
+		return value < 0 ? -cents : cents;
+	}
+
+	/**
+	 * Parses a formatted Brazilian currency {@code String} to cents.
+	 *
+	 * @param text the text to be parsed.
+	 * @return the amount in cents.
+	 * @throws ParseException      if the text is malformed.
+	 * @throws ArithmeticException if the amount does not fit in a {@code long}.
+	 *
+	 * @see #parse(CharSequence)
+	 * @since 0.1
+	 */
+	public static long parseCents(final CharSequence text) throws ParseException {
+		return CurrencyParser.parseBrazilianCents(text);
+	}
+
+	/**
+	 * Formats an amount of cents as Brazilian currency.
+	 *
+	 * @param cents the amount in cents.
+	 * @return a String formatted as Brazilian currency.
+	 *
+	 * @since 0.1
+	 */
+	public static String formatCents(final long cents) {
+		return BrazilianCurrencyFormatter.formatCents(cents);
+	}
+
+	/**
+	 * Adds two amounts of cents.
+	 *
+	 * @param a the first amount.
+	 * @param b the second amount.
+	 * @return the sum.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public static long addCents(final long a, final long b) {
+		return Math.addExact(a, b);
+	}
+
+	/**
+	 * Subtracts an amount of cents from another.
+	 *
+	 * @param a the amount to subtract from.
+	 * @param b the amount to subtract.
+	 * @return the difference.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public static long subtractCents(final long a, final long b) {
+		return Math.subtractExact(a, b);
+	}
+
+	/**
+	 * Multiplies an amount of cents by an integer factor.
+	 *
+	 * @param cents  the amount.
+	 * @param factor the factor.
+	 * @return the product.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public static long multiplyCents(final long cents, final long factor) {
+		return Math.multiplyExact(cents, factor);
+	}
+
+	/**
+	 * Multiplies an amount of cents by a decimal factor, rounding the result.
+	 *
+	 * @param cents  the amount.
+	 * @param factor the factor, such as a rate.
+	 * @return the product.
+	 * @throws ArithmeticException if the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public static long multiplyCents(final long cents, final BigDecimal factor) {
+		return BigDecimal.valueOf(cents).multiply(factor).setScale(0, RoundingMode.HALF_UP).longValueExact();
+	}
+
+	/**
+	 * Divides an amount of cents by an integer divisor, rounding the result.
+	 *
+	 * @param cents   the amount.
+	 * @param divisor the divisor.
+	 * @return the quotient.
+	 * @throws ArithmeticException if the divisor is zero or the result overflows.
+	 *
+	 * @since 0.1
+	 */
+	public static long divideCents(final long cents, final long divisor) {
+		if (cents == Long.MIN_VALUE && divisor == -1)
+			throw new ArithmeticException("long overflow");
+
+		final long quotient = cents / divisor;
+		final long remainder = Math.abs(cents % divisor);
+
+		// compared unsigned, as Math.abs(Long.MIN_VALUE) is 2^63 when read that way
+		if (Long.compareUnsigned(remainder, Math.abs(divisor) - remainder) < 0)
+			return quotient;
+
+		return (cents < 0) == (divisor < 0) ? quotient + 1 : quotient - 1;
+	}
+}
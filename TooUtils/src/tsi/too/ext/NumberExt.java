@@ -1,18 +1,32 @@
 package tsi.too.ext;
 
-import java.text.NumberFormat;
-
-import tsi.too.util.LocaleUtils;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
 
 /**
  * Convenience class for common numeric operations.
  * 
  * @author Lucas Cristovam
- * @version 0.2
+ * @version 0.3
  */
 
 public class NumberExt {
 
+	/**
+	 * The minimum number of values for which the bulk formatting methods split the
+	 * work across the common {@link java.util.concurrent.ForkJoinPool}.
+	 * 
+	 * @since 0.3
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	private static final int MIN_CHUNK_SIZE = 1 << 12;
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final int ESTIMATED_CURRENCY_LENGTH = 16;
+	private static final int WRITE_BUFFER_SIZE = 1 << 13;
+
 	/**
 	 * Formats a number for the Brazilian currency.
 	 * 
@@ -22,6 +36,306 @@ public class NumberExt {
 	 * @since 0.1
 	 */
     public static String toBrazilianCurrency(final Number number) {
-        return NumberFormat.getCurrencyInstance(LocaleUtils.getBrazilianLocale()).format(number);
+        return BrazilianCurrencyFormatter.format(number);
     }
+
+	/**
+	 * Formats an amount of cents for the Brazilian currency.
+	 * 
+	 * @param cents the amount in cents.
+	 * @return a String formatted as Brazilian currency.
+	 * 
+	 * @since 0.3
+	 */
+    public static String centsToBrazilianCurrency(final long cents) {
+        return BrazilianCurrencyFormatter.formatCents(cents);
+    }
+
+	/**
+	 * Formats a column of amounts in cents for the Brazilian currency.
+	 * 
+	 * @param cents the amounts in cents.
+	 * @return the formatted values packed in a single {@link FormattedColumn}.
+	 * @throws IllegalArgumentException if the formatted column does not fit in a
+	 *                                  single {@code char[]}.
+	 * 
+	 * @since 0.3
+	 */
+	public static FormattedColumn centsToBrazilianCurrency(final long[] cents) {
+		return pack(cents.length, (target, i) -> BrazilianCurrencyFormatter.appendCents(target, cents[i]));
+	}
+
+	/**
+	 * Formats a column of numbers for the Brazilian currency.
+	 * 
+	 * @param values the numbers to format.
+	 * @return the formatted values packed in a single {@link FormattedColumn}.
+	 * @throws IllegalArgumentException if the formatted column does not fit in a
+	 *                                  single {@code char[]}.
+	 * 
+	 * @since 0.3
+	 */
+	public static FormattedColumn toBrazilianCurrency(final double[] values) {
+		return pack(values.length, (target, i) -> BrazilianCurrencyFormatter.append(target, values[i]));
+	}
+
+	/**
+	 * Formats a column of numbers for the Brazilian currency.
+	 * 
+	 * @param values the numbers to format.
+	 * @return the formatted values packed in a single {@link FormattedColumn}.
+	 * @throws IllegalArgumentException if the formatted column does not fit in a
+	 *                                  single {@code char[]} or if any value is
+	 *                                  null.
+	 * 
+	 * @since 0.3
+	 */
+	public static FormattedColumn toBrazilianCurrency(final BigDecimal[] values) {
+		return pack(values.length, (target, i) -> BrazilianCurrencyFormatter.append(target, values[i]));
+	}
+
+	/**
+	 * Formats a column of amounts in cents for the Brazilian currency and writes
+	 * it, in order, to a {@link Writer}.
+	 * 
+	 * @param cents     the amounts in cents.
+	 * @param out       the target {@code Writer}.
+	 * @param separator the text written after every value.
+	 * @throws IOException if the {@code Writer} fails.
+	 * 
+	 * @since 0.3
+	 */
+	public static void writeCentsAsBrazilianCurrency(final long[] cents, final Writer out,
+			final CharSequence separator) throws IOException {
+		write(cents.length, (target, i) -> BrazilianCurrencyFormatter.appendCents(target, cents[i]), out, separator);
+	}
+
+	/**
+	 * Formats a column of numbers for the Brazilian currency and writes it, in
+	 * order, to a {@link Writer}.
+	 * 
+	 * @param values    the numbers to format.
+	 * @param out       the target {@code Writer}.
+	 * @param separator the text written after every value.
+	 * @throws IOException if the {@code Writer} fails.
+	 * 
+	 * @since 0.3
+	 */
+	public static void writeAsBrazilianCurrency(final double[] values, final Writer out,
+			final CharSequence separator) throws IOException {
+		write(values.length, (target, i) -> BrazilianCurrencyFormatter.append(target, values[i]), out, separator);
+	}
+
+	/**
+	 * Formats a column of numbers for the Brazilian currency and writes it, in
+	 * order, to a {@link Writer}.
+	 * 
+	 * @param values    the numbers to format.
+	 * @param out       the target {@code Writer}.
+	 * @param separator the text written after every value.
+	 * @throws IOException              if the {@code Writer} fails.
+	 * @throws IllegalArgumentException if any value is null.
+	 * 
+	 * @since 0.3
+	 */
+	public static void writeAsBrazilianCurrency(final BigDecimal[] values, final Writer out,
+			final CharSequence separator) throws IOException {
+		write(values.length, (target, i) -> BrazilianCurrencyFormatter.append(target, values[i]), out, separator);
+	}
+
+	private static FormattedColumn pack(final int size, final ElementAppender appender) {
+		final int chunkSize = chunkSize(size);
+		final int chunks = (size + chunkSize - 1) / chunkSize;
+		final StringBuilder[] parts = new StringBuilder[chunks];
+		final int[] offsets = new int[size + 1];
+
+		// first pass: every chunk formats into its own buffer, recording local end offsets
+		chunkRange(size, chunks).forEach(chunk -> {
+			final int from = chunk * chunkSize;
+			final int to = Math.min(size, from + chunkSize);
+			final StringBuilder part = new StringBuilder((to - from) * ESTIMATED_CURRENCY_LENGTH);
+
+			for (int i = from; i < to; i++) {
+				appender.append(part, i);
+				offsets[i + 1] = part.length();
+			}
+
+			parts[chunk] = part;
+		});
+
+		final int[] starts = new int[chunks];
+		long total = 0;
+
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			starts[chunk] = (int) total;
+			total += parts[chunk].length();
+
+			if (total > Integer.MAX_VALUE - 8)
+				throw new IllegalArgumentException("the formatted column does not fit in a char[]");
+		}
+
+		final char[] chars = new char[(int) total];
+
+		// second pass: copy every chunk to its final position and rebase its offsets
+		chunkRange(size, chunks).forEach(chunk -> {
+			final int from = chunk * chunkSize;
+			final int to = Math.min(size, from + chunkSize);
+			final StringBuilder part = parts[chunk];
+
+			part.getChars(0, part.length(), chars, starts[chunk]);
+			parts[chunk] = null;
+
+			for (int i = from; i < to; i++)
+				offsets[i + 1] += starts[chunk];
+		});
+
+		return new FormattedColumn(chars, offsets);
+	}
+
+	private static void write(final int size, final ElementAppender appender, final Writer out,
+			final CharSequence separator) throws IOException {
+		// a fixed chunk size, unlike format, so the window does not grow with size
+		final int chunkSize = size < PARALLEL_THRESHOLD ? Math.max(1, size) : MIN_CHUNK_SIZE;
+		final int window = size < PARALLEL_THRESHOLD ? 1
+				: Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD;
+		final StringBuilder[] parts = new StringBuilder[window];
+		char[] buffer = new char[WRITE_BUFFER_SIZE];
+
+		// formats a window of chunks at a time, so only the window is held in memory
+		for (int first = 0; first < size; first += window * chunkSize) {
+			final int windowStart = first;
+			final int chunks = Math.min(window, (size - first + chunkSize - 1) / chunkSize);
+
+			chunkRange(size, chunks).forEach(chunk -> {
+				final int from = windowStart + chunk * chunkSize;
+				final int to = Math.min(size, from + chunkSize);
+				StringBuilder part = parts[chunk];
+
+				if (part == null)
+					parts[chunk] = part = new StringBuilder(chunkSize * ESTIMATED_CURRENCY_LENGTH);
+				else
+					part.setLength(0);
+
+				for (int i = from; i < to; i++)
+					appender.append(part, i).append(separator);
+			});
+
+			for (int chunk = 0; chunk < chunks; chunk++) {
+				final StringBuilder part = parts[chunk];
+
+				for (int start = 0; start < part.length(); start += buffer.length) {
+					final int end = Math.min(part.length(), start + buffer.length);
+					part.getChars(start, end, buffer, 0);
+					out.write(buffer, 0, end - start);
+				}
+			}
+		}
+	}
+
+	private static int chunkSize(final int size) {
+		if (size < PARALLEL_THRESHOLD)
+			return Math.max(1, size);
+
+		final int chunks = Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD;
+		return Math.max(MIN_CHUNK_SIZE, (size + chunks - 1) / chunks);
+	}
+
+	private static IntStream chunkRange(final int size, final int chunks) {
+		final IntStream range = IntStream.range(0, chunks);
+		return size < PARALLEL_THRESHOLD ? range : range.parallel();
+	}
+
+	/**
+	 * Appends the formatted element at an index of a column.
+	 */
+	private interface ElementAppender {
+		StringBuilder append(StringBuilder target, int index);
+	}
+
+	/**
+	 * A column of formatted values packed in a single {@code char[]}. The value
+	 * at index {@code i} spans {@code [getStart(i), getEnd(i))} of
+	 * {@link #getChars()}.
+	 * 
+	 * @author Lucas Cristovam
+	 * 
+	 * @since 0.3
+	 */
+	public static class FormattedColumn {
+		private final char[] chars;
+		private final int[] offsets;
+
+		private FormattedColumn(char[] chars, int[] offsets) {
+			this.chars = chars;
+			this.offsets = offsets;
+		}
+
+		/**
+		 * Gets the number of values in the column.
+		 * 
+		 * @return the number of values.
+		 */
+		public int size() {
+			return offsets.length - 1;
+		}
+
+		/**
+		 * Gets the value at the given index as a {@code String}.
+		 * 
+		 * @param index the index of the value.
+		 * @return the formatted value.
+		 * @throws IndexOutOfBoundsException if the index is out of range.
+		 */
+		public String get(int index) {
+			return new String(chars, getStart(index), getEnd(index) - getStart(index));
+		}
+
+		/**
+		 * Gets where the value at the given index starts in {@link #getChars()}.
+		 * 
+		 * @param index the index of the value.
+		 * @return the inclusive start offset.
+		 * @throws IndexOutOfBoundsException if the index is out of range.
+		 */
+		public int getStart(int index) {
+			return offsets[checkIndex(index)];
+		}
+
+		/**
+		 * Gets where the value at the given index ends in {@link #getChars()}.
+		 * 
+		 * @param index the index of the value.
+		 * @return the exclusive end offset.
+		 * @throws IndexOutOfBoundsException if the index is out of range.
+		 */
+		public int getEnd(int index) {
+			return offsets[checkIndex(index) + 1];
+		}
+
+		/**
+		 * Gets the backing characters. The array is not copied.
+		 * 
+		 * @return the packed characters of all values.
+		 */
+		public char[] getChars() {
+			return chars;
+		}
+
+		/**
+		 * Gets the backing offsets index, holding {@code size() + 1} entries. The
+		 * array is not copied.
+		 * 
+		 * @return the offsets index.
+		 */
+		public int[] getOffsets() {
+			return offsets;
+		}
+
+		private int checkIndex(int index) {
+			if (index < 0 || index >= size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+			return index;
+		}
+	}
 }
\ No newline at end of file
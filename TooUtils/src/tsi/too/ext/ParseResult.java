@@ -0,0 +1,97 @@
+package tsi.too.ext;
+
+/**
+ * A reusable holder for the outcome of the {@code tryParse*} methods, so a
+ * parse can succeed or fail without allocating or throwing.
+ *
+ * <p>
+ * A holder is meant to be created once and reused for every parse of a loop.
+ * It is not thread-safe.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ *
+ * @see StringExt#tryParseInt(CharSequence, ParseResult)
+ * @see StringExt#tryParseLong(CharSequence, ParseResult)
+ * @see StringExt#tryParseDouble(CharSequence, ParseResult)
+ */
+public class ParseResult {
+	private boolean valid;
+	private long longValue;
+	private double doubleValue;
+
+	/**
+	 * Checks whether the last parse succeeded.
+	 *
+	 * @return true if the last parse succeeded.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Gets the value of the last successful {@code int} parse.
+	 *
+	 * @return the parsed value, or {@code 0} if the last parse failed.
+	 *
+	 * @since 0.1
+	 */
+	public int intValue() {
+		return (int) longValue;
+	}
+
+	/**
+	 * Gets the value of the last successful {@code int} or {@code long} parse.
+	 *
+	 * @return the parsed value, or {@code 0} if the last parse failed.
+	 *
+	 * @since 0.1
+	 */
+	public long longValue() {
+		return longValue;
+	}
+
+	/**
+	 * Gets the value of the last successful {@code double} parse.
+	 *
+	 * @return the parsed value, or {@code 0} if the last parse failed.
+	 *
+	 * @since 0.1
+	 */
+	public double doubleValue() {
+		return doubleValue;
+	}
+
+	boolean succeed(long value) {
+		valid = true;
+		longValue = value;
+		doubleValue = value;
+
+		return true;
+	}
+
+	boolean succeed(double value) {
+		valid = true;
+		longValue = (long) value;
+		doubleValue = value;
+
+		return true;
+	}
+
+	boolean fail() {
+		valid = false;
+		longValue = 0;
+		doubleValue = 0;
+
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return valid ? String.format("ParseResult[%s]", doubleValue == longValue ? longValue : doubleValue)
+				: "ParseResult[invalid]";
+	}
+}
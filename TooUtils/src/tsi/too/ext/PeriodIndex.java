@@ -0,0 +1,329 @@
+package tsi.too.ext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * An immutable index of periods, each with a value, that finds the periods
+ * containing a date.
+ *
+ * <p>
+ * A date is in a period exactly when
+ * {@link LocalDateExt#isInPeriod(LocalDate, LocalDate, LocalDate)} says so,
+ * so a period whose start comes after its end holds only those two dates.
+ * </p>
+ *
+ * <p>
+ * The periods are kept in a centered interval tree over epoch days, so a
+ * single date is answered in {@code O(log n + k)} for {@code k} matches. A
+ * batch of dates in ascending order is answered by a single sweep instead.
+ * Matches are reported in no particular order.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and may be shared between threads, as long as the
+ * values themselves are.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ * @version 0.1
+ *
+ * @param <T> the type of the values.
+ */
+public class PeriodIndex<T> {
+	private final List<T> values;
+	private final long[] starts;
+	private final long[] ends;
+	private final int[] valueIndices;
+	private final int[] byStart;
+	private final Node root;
+
+	private PeriodIndex(Builder<T> builder) {
+		this.values = Collections.unmodifiableList(new ArrayList<>(builder.values));
+		this.starts = Arrays.copyOf(builder.starts, builder.size);
+		this.ends = Arrays.copyOf(builder.ends, builder.size);
+		this.valueIndices = Arrays.copyOf(builder.valueIndices, builder.size);
+
+		final int[] all = new int[builder.size];
+		Arrays.setAll(all, i -> i);
+
+		this.byStart = sortedIds(all, Comparator.comparingLong(id -> starts[id]));
+		this.root = build(all);
+	}
+
+	/**
+	 * Creates a builder for a {@code PeriodIndex}.
+	 *
+	 * @param <T> the type of the values.
+	 * @return a new, empty builder.
+	 *
+	 * @since 0.1
+	 */
+	public static <T> Builder<T> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * Gets the number of periods in this index.
+	 *
+	 * @return the number of periods.
+	 *
+	 * @since 0.1
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * Finds the values of the periods containing a date.
+	 *
+	 * @param date the date to be looked up.
+	 * @return the values of the matching periods.
+	 *
+	 * @since 0.1
+	 */
+	public List<T> findContaining(LocalDate date) {
+		return findContaining(Objects.requireNonNull(date).toEpochDay());
+	}
+
+	/**
+	 * Finds the values of the periods containing an epoch day.
+	 *
+	 * @param epochDay the day to be looked up.
+	 * @return the values of the matching periods.
+	 *
+	 * @since 0.1
+	 */
+	public List<T> findContaining(long epochDay) {
+		final List<T> found = new ArrayList<>();
+		forEachContaining(epochDay, found::add);
+
+		return found;
+	}
+
+	/**
+	 * Passes the value of every period containing an epoch day to an action.
+	 *
+	 * @param epochDay the day to be looked up.
+	 * @param action   receives the value of each matching period.
+	 *
+	 * @since 0.1
+	 */
+	public void forEachContaining(long epochDay, Consumer<? super T> action) {
+		Node node = root;
+
+		while (node != null) {
+			if (epochDay < node.center) {
+				for (int i = 0; i < node.byStart.length && starts[node.byStart[i]] <= epochDay; i++)
+					action.accept(values.get(valueIndices[node.byStart[i]]));
+
+				node = node.left;
+			} else if (epochDay > node.center) {
+				for (int i = 0; i < node.byEnd.length && ends[node.byEnd[i]] >= epochDay; i++)
+					action.accept(values.get(valueIndices[node.byEnd[i]]));
+
+				node = node.right;
+			} else {
+				for (int id : node.byStart)
+					action.accept(values.get(valueIndices[id]));
+
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Finds the periods containing each of many epoch days, sweeping the days
+	 * and the periods once together.
+	 *
+	 * @param sortedEpochDays the days to be looked up, in ascending order.
+	 * @param action          receives the index of each day together with the
+	 *                        value of each period containing it, day by day.
+	 * @throws IllegalArgumentException if the days are not in ascending order.
+	 *
+	 * @since 0.1
+	 */
+	public void forEachContaining(int[] sortedEpochDays, DayConsumer<? super T> action) {
+		final PriorityQueue<Integer> active = new PriorityQueue<>(Comparator.comparingLong(id -> ends[id]));
+		int next = 0;
+
+		for (int day = 0; day < sortedEpochDays.length; day++) {
+			final long epochDay = sortedEpochDays[day];
+
+			if (day > 0 && epochDay < sortedEpochDays[day - 1])
+				throw new IllegalArgumentException("epoch days must be in ascending order");
+
+			while (next < byStart.length && starts[byStart[next]] <= epochDay)
+				active.add(byStart[next++]);
+
+			while (!active.isEmpty() && ends[active.peek()] < epochDay)
+				active.poll();
+
+			for (int id : active)
+				action.accept(day, values.get(valueIndices[id]));
+		}
+	}
+
+	private static int[] sortedIds(int[] ids, Comparator<Integer> comparator) {
+		return Arrays.stream(ids).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Builds the subtree of the given intervals around the median of their
+	 * endpoints, which always lies in at least one of them.
+	 */
+	private Node build(int[] ids) {
+		if (ids.length == 0)
+			return null;
+
+		final long[] endpoints = new long[ids.length * 2];
+
+		for (int i = 0; i < ids.length; i++) {
+			endpoints[2 * i] = starts[ids[i]];
+			endpoints[2 * i + 1] = ends[ids[i]];
+		}
+
+		Arrays.sort(endpoints);
+		final long center = endpoints[ids.length];
+
+		final int[] left = Arrays.stream(ids).filter(id -> ends[id] < center).toArray();
+		final int[] right = Arrays.stream(ids).filter(id -> starts[id] > center).toArray();
+		final int[] here = Arrays.stream(ids).filter(id -> starts[id] <= center && ends[id] >= center).toArray();
+
+		return new Node(center, sortedIds(here, Comparator.comparingLong(id -> starts[id])),
+				sortedIds(here, Comparator.comparingLong((Integer id) -> ends[id]).reversed()), build(left),
+				build(right));
+	}
+
+	/**
+	 * A node of the interval tree: the intervals containing its center, sorted by
+	 * ascending start and by descending end.
+	 */
+	private static class Node {
+		private final long center;
+		private final int[] byStart;
+		private final int[] byEnd;
+		private final Node left;
+		private final Node right;
+
+		private Node(long center, int[] byStart, int[] byEnd, Node left, Node right) {
+			this.center = center;
+			this.byStart = byStart;
+			this.byEnd = byEnd;
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * Receives the matches of a batch query.
+	 *
+	 * @author Lucas Cristovam
+	 *
+	 * @param <T> the type of the values.
+	 *
+	 * @since 0.1
+	 */
+	@FunctionalInterface
+	public interface DayConsumer<T> {
+
+		/**
+		 * Called once for every period containing a day.
+		 *
+		 * @param dayIndex the index of the day in the queried array.
+		 * @param value    the value of the matching period.
+		 */
+		void accept(int dayIndex, T value);
+	}
+
+	/**
+	 * Collects the periods of a {@link PeriodIndex}. A builder is not
+	 * thread-safe.
+	 *
+	 * @author Lucas Cristovam
+	 *
+	 * @param <T> the type of the values.
+	 *
+	 * @since 0.1
+	 */
+	public static class Builder<T> {
+		private final List<T> values = new ArrayList<>();
+		private long[] starts = new long[16];
+		private long[] ends = new long[16];
+		private int[] valueIndices = new int[16];
+		private int size;
+
+		private Builder() {
+		}
+
+		/**
+		 * Adds a period.
+		 *
+		 * @param startDateInclusive the start date of the period.
+		 * @param endDateInclusive   the end date of the period.
+		 * @param value              the value of the period, may be null.
+		 * @return this builder.
+		 *
+		 * @since 0.1
+		 */
+		public Builder<T> add(LocalDate startDateInclusive, LocalDate endDateInclusive, T value) {
+			return add(Objects.requireNonNull(startDateInclusive).toEpochDay(),
+					Objects.requireNonNull(endDateInclusive).toEpochDay(), value);
+		}
+
+		/**
+		 * Adds a period given as epoch days.
+		 *
+		 * @param startEpochDayInclusive the start day of the period.
+		 * @param endEpochDayInclusive   the end day of the period.
+		 * @param value                  the value of the period, may be null.
+		 * @return this builder.
+		 *
+		 * @since 0.1
+		 */
+		public Builder<T> add(long startEpochDayInclusive, long endEpochDayInclusive, T value) {
+			values.add(value);
+			final int valueIndex = values.size() - 1;
+
+			if (startEpochDayInclusive <= endEpochDayInclusive) {
+				addInterval(startEpochDayInclusive, endEpochDayInclusive, valueIndex);
+			} else {
+				// a reversed period holds only its two endpoints
+				addInterval(endEpochDayInclusive, endEpochDayInclusive, valueIndex);
+				addInterval(startEpochDayInclusive, startEpochDayInclusive, valueIndex);
+			}
+
+			return this;
+		}
+
+		/**
+		 * Builds the index. The builder may keep being used afterwards.
+		 *
+		 * @return a new index with every period added so far.
+		 *
+		 * @since 0.1
+		 */
+		public PeriodIndex<T> build() {
+			return new PeriodIndex<>(this);
+		}
+
+		private void addInterval(long start, long end, int valueIndex) {
+			if (size == starts.length) {
+				starts = Arrays.copyOf(starts, size * 2);
+				ends = Arrays.copyOf(ends, size * 2);
+				valueIndices = Arrays.copyOf(valueIndices, size * 2);
+			}
+
+			starts[size] = start;
+			ends[size] = end;
+			valueIndices[size++] = valueIndex;
+		}
+	}
+}
@@ -1,18 +1,16 @@
 package tsi.too.ext;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
-
-import tsi.too.util.LocaleUtils;
+import java.util.Objects;
 
 /**
- * Convenience class for common {@link String} operations.
+ * Convenience class for common {@link String} and {@link CharSequence}
+ * operations.
  * 
  * @author Lucas Cristovam
- * @version 0.3
+ * @version 0.5
  */
 public class StringExt {
 
@@ -25,7 +23,96 @@ public class StringExt {
 	 * @since 0.1
 	 */
 	public static String removeLastChar(final String source) {
-		return source.replaceFirst(".$", "");
+		final long range = lastCharRange(source);
+
+		if (range < 0)
+			return source;
+
+		final int begin = (int) (range >>> 32);
+		final int end = (int) range;
+
+		if (end == source.length())
+			return source.substring(0, begin);
+
+		return new StringBuilder(source.length() - (end - begin)).append(source, 0, begin)
+				.append(source, end, source.length()).toString();
+	}
+
+	/**
+	 * Gets a view of the sequence without its last character. A trailing line
+	 * terminator is kept, the character before it is removed instead, and a
+	 * surrogate pair counts as one character, as for {@link #removeLastChar(String)}.
+	 * 
+	 * @param source the source {@code CharSequence}.
+	 * @return a view of the resulting chars. Copies nothing unless the removed
+	 *         character is followed by a line terminator.
+	 * 
+	 * @since 0.5
+	 */
+	public static CharSequence removeLastChar(final CharSequence source) {
+		final long range = lastCharRange(source);
+
+		if (range < 0)
+			return source;
+
+		final int begin = (int) (range >>> 32);
+		final int end = (int) range;
+
+		if (end == source.length())
+			return CharSlice.of(source, 0, begin);
+
+		return new StringBuilder(source.length() - (end - begin)).append(source, 0, begin)
+				.append(source, end, source.length());
+	}
+
+	/**
+	 * Finds what {@code replaceFirst(".$", "")} removes, packed as
+	 * {@code begin << 32 | end}, or -1 if nothing matches.
+	 */
+	private static long lastCharRange(final CharSequence source) {
+		final int length = source.length();
+
+		for (int begin = Math.max(0, length - 4); begin < length; begin++) {
+			final int codePoint = Character.codePointAt(source, begin);
+
+			if (isLineTerminator(codePoint))
+				continue;
+
+			final int end = begin + Character.charCount(codePoint);
+
+			if (isEndOfInput(source, end))
+				return (long) begin << 32 | end;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Checks whether a non-multiline {@code $} matches at the index.
+	 */
+	private static boolean isEndOfInput(final CharSequence source, final int index) {
+		final int length = source.length();
+
+		if (index == length)
+			return true;
+
+		if (index == length - 2)
+			return source.charAt(index) == '\r' && source.charAt(index + 1) == '\n';
+
+		if (index == length - 1) {
+			final char c = source.charAt(index);
+
+			if (c == '\n')
+				return index == 0 || source.charAt(index - 1) != '\r';
+
+			return isLineTerminator(c);
+		}
+
+		return false;
+	}
+
+	private static boolean isLineTerminator(final int c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
 	}
 
 	/**
@@ -36,14 +123,14 @@ public class StringExt {
 	 *         if the {@code String} cannot be parsed.
 	 * 
 	 * @since 0.1
+	 * @deprecated a failed parse cannot be told apart from {@code 0}; use
+	 *             {@link #tryParseLong(CharSequence, ParseResult)} instead.
 	 */
 	@Deprecated
 	public static long toLong(final String str) {
-		try {
-			return Long.parseLong(str);
-		} catch (NumberFormatException ex) {
-			return 0;
-		}
+		final ParseResult result = new ParseResult();
+
+		return tryParseLong(str, result) ? result.longValue() : 0;
 	}
 
 	/**
@@ -54,18 +141,139 @@ public class StringExt {
 	 *         {@code 0} if the {@code String} cannot be parsed.
 	 * 
 	 * @since 0.1
+	 * @deprecated a failed parse cannot be told apart from {@code 0}; use
+	 *             {@link #tryParseInt(CharSequence, ParseResult)} instead.
 	 */
 	@Deprecated
 	public static int toInt(final String str) {
-		try {
-			return Integer.parseInt(str);
-		} catch (NumberFormatException ex) {
-			return 0;
+		final ParseResult result = new ParseResult();
+
+		return tryParseInt(str, result) ? result.intValue() : 0;
+	}
+
+	/**
+	 * Parses the {@code CharSequence} as an {@code int}, accepting exactly what
+	 * {@link Integer#parseInt(String)} accepts, without throwing.
+	 * 
+	 * @param str    the {@code CharSequence} to be parsed, may be null.
+	 * @param result receives the parsed value.
+	 * @return true if the {@code CharSequence} is a valid {@code int}.
+	 * 
+	 * @since 0.5
+	 */
+	public static boolean tryParseInt(final CharSequence str, final ParseResult result) {
+		if (str == null)
+			return result.fail();
+
+		return tryParseLong(str, 0, str.length(), Integer.MIN_VALUE, Integer.MAX_VALUE, result);
+	}
+
+	/**
+	 * Parses the {@code CharSequence} as a {@code long}, accepting exactly what
+	 * {@link Long#parseLong(String)} accepts, without throwing.
+	 * 
+	 * @param str    the {@code CharSequence} to be parsed, may be null.
+	 * @param result receives the parsed value.
+	 * @return true if the {@code CharSequence} is a valid {@code long}.
+	 * 
+	 * @since 0.5
+	 */
+	public static boolean tryParseLong(final CharSequence str, final ParseResult result) {
+		if (str == null)
+			return result.fail();
+
+		return tryParseLong(str, 0, str.length(), Long.MIN_VALUE, Long.MAX_VALUE, result);
+	}
+
+	/**
+	 * Parses a range of the {@code CharSequence} as a {@code long}, accepting
+	 * exactly what {@link Long#parseLong(CharSequence, int, int, int)} accepts
+	 * with radix 10, without throwing.
+	 * 
+	 * @param str        the {@code CharSequence} to be parsed.
+	 * @param beginIndex the beginning index, inclusive.
+	 * @param endIndex   the ending index, exclusive.
+	 * @param result     receives the parsed value.
+	 * @return true if the range is a valid {@code long}.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 * 
+	 * @since 0.5
+	 */
+	public static boolean tryParseLong(final CharSequence str, final int beginIndex, final int endIndex,
+			final ParseResult result) {
+		Objects.checkFromToIndex(beginIndex, endIndex, str.length());
+
+		return tryParseLong(str, beginIndex, endIndex, Long.MIN_VALUE, Long.MAX_VALUE, result);
+	}
+
+	/**
+	 * Parses the {@code CharSequence} as a {@code double} the same way as
+	 * {@link #toDouble(String)}, without throwing.
+	 * 
+	 * @param str    the {@code CharSequence} to be parsed, may be null.
+	 * @param result receives the parsed value.
+	 * @return true if the {@code CharSequence} is a valid {@code double}.
+	 * 
+	 * @since 0.5
+	 */
+	public static boolean tryParseDouble(final CharSequence str, final ParseResult result) {
+		if (str == null)
+			return result.fail();
+
+		return DoubleParser.tryParseAutoDetecting(str, 0, str.length(), result);
+	}
+
+	/**
+	 * Accumulates negatively, as the JDK does, so the minimum value parses too.
+	 */
+	private static boolean tryParseLong(final CharSequence str, final int beginIndex, final int endIndex,
+			final long min, final long max, final ParseResult result) {
+		int i = beginIndex;
+
+		if (i >= endIndex)
+			return result.fail();
+
+		boolean negative = false;
+		long limit = -max;
+		final char first = str.charAt(i);
+
+		if (first < '0') {
+			if (first == '-') {
+				negative = true;
+				limit = min;
+			} else if (first != '+') {
+				return result.fail();
+			}
+
+			if (++i == endIndex)
+				return result.fail();
+		}
+
+		final long limitBeforeMultiply = limit / 10;
+		long value = 0;
+
+		while (i < endIndex) {
+			final int digit = Character.digit(str.charAt(i++), 10);
+
+			if (digit < 0 || value < limitBeforeMultiply)
+				return result.fail();
+
+			value *= 10;
+
+			if (value < limit + digit)
+				return result.fail();
+
+			value -= digit;
 		}
+
+		return result.succeed(negative ? value : -value);
 	}
 
 	/**
-	 * Parses the {@code String} as a {@code Double} and returns the result.
+	 * Parses the {@code String} as a {@code Double} and returns the result. The
+	 * decimal and grouping separators are worked out as described in
+	 * {@link DoubleParser#parseAutoDetecting(CharSequence, int, int)}, so both
+	 * {@code "1,234.56"} and {@code "1.234,56"} are accepted.
 	 * 
 	 * @param str the {@code String} to be parsed.
 	 * @return the {@code Double} value represented by the {@code String} or
@@ -76,11 +284,26 @@ public class StringExt {
 	 * @since 0.1
 	 */
 	public static double toDouble(final String str) throws NumberFormatException{
-		if (str.contains(",")) {
-			return Double.parseDouble(str.replace(",", ""));
-		}
-		
-		return Double.parseDouble(str);
+		return toDouble(str, 0, str.length());
+	}
+
+	/**
+	 * Parses a range of the {@code CharSequence} as a {@code Double} and returns
+	 * the result, working out the separators as {@link #toDouble(String)} does.
+	 * 
+	 * @param str        the {@code CharSequence} to be parsed.
+	 * @param beginIndex the beginning index, inclusive.
+	 * @param endIndex   the ending index, exclusive.
+	 * @return the {@code Double} value represented by the range.
+	 * @throws NumberFormatException     if the range does not contain a parsable
+	 *                                   {@code double}.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 * 
+	 * @since 0.5
+	 */
+	public static double toDouble(final CharSequence str, final int beginIndex, final int endIndex)
+			throws NumberFormatException {
+		return DoubleParser.parseAutoDetecting(str, beginIndex, endIndex);
 	}
  
 	/**
@@ -95,7 +318,7 @@ public class StringExt {
 	 * @since 0.2
 	 */
 	public static BigDecimal fromBraziliaCurrencyString(final String str) throws ParseException {
-		return fromCurrencyString(str, LocaleUtils.getBrazilianLocale());
+		return CurrencyParser.parseBrazilianBigDecimal(str);
 	}
 
 	/**
@@ -111,16 +334,116 @@ public class StringExt {
 	 * @since 0.2
 	 */
 	public static BigDecimal fromCurrencyString(final String str, final Locale locale) throws ParseException {
-		final NumberFormat format = NumberFormat.getNumberInstance(locale);
+		return CurrencyParser.parseBigDecimal(str, locale);
+	}
+
+	/**
+	 * Parses the currency {@code CharSequence} as an amount of cents, rounding
+	 * {@link java.math.RoundingMode#HALF_UP HALF_UP}.
+	 * 
+	 * @param str    the {@code CharSequence} to be parsed.
+	 * @param locale the base locale.
+	 * @return the amount in cents represented by the {@code CharSequence}.
+	 * @throws ParseException      if the {@code CharSequence} is malformed.
+	 * @throws ArithmeticException if the amount does not fit in a {@code long}.
+	 * 
+	 * @since 0.4
+	 */
+	public static long fromCurrencyStringToCents(final CharSequence str, final Locale locale) throws ParseException {
+		return CurrencyParser.parseCents(str, locale);
+	}
 
-		if (format instanceof DecimalFormat) {
-			((DecimalFormat) format).setParseBigDecimal(true);
+	/**
+	 * Checks whether the {@code String} is null, empty or contains only white
+	 * space.
+	 * 
+	 * @param str the {@code String} to be checked.
+	 * @return true if the {@code String} is null or blank.
+	 * 
+	 * @since 0.3
+	 */
+	public static boolean isNullOrBlank(String str) {
+		return isNullOrBlank((CharSequence) str);
+	}
+
+	/**
+	 * Checks whether the {@code CharSequence} is null, empty or contains only
+	 * {@link Character#isWhitespace(int) white space} code points.
+	 * 
+	 * @param str the {@code CharSequence} to be checked.
+	 * @return true if the {@code CharSequence} is null or blank.
+	 * 
+	 * @since 0.5
+	 */
+	public static boolean isNullOrBlank(CharSequence str) {
+		return str == null || isBlank(str, 0, str.length());
+	}
+
+	/**
+	 * Checks whether a range of the {@code CharSequence} contains only
+	 * {@link Character#isWhitespace(int) white space} code points.
+	 * 
+	 * @param str        the {@code CharSequence} to be checked.
+	 * @param beginIndex the beginning index, inclusive.
+	 * @param endIndex   the ending index, exclusive.
+	 * @return true if the range is empty or blank.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 * 
+	 * @since 0.5
+	 */
+	public static boolean isBlank(CharSequence str, int beginIndex, int endIndex) {
+		Objects.checkFromToIndex(beginIndex, endIndex, str.length());
+
+		for (int i = beginIndex; i < endIndex; i++) {
+			final char c = str.charAt(i);
+
+			if (Character.isHighSurrogate(c) && i + 1 < endIndex && Character.isLowSurrogate(str.charAt(i + 1))) {
+				if (!Character.isWhitespace(Character.toCodePoint(c, str.charAt(++i))))
+					return false;
+			} else if (!Character.isWhitespace(c)) {
+				return false;
+			}
 		}
 
-		return (BigDecimal) format.parse(str.replaceAll("[^\\d.,]", ""));
+		return true;
 	}
 
-	public static boolean isNullOrBlank(String str) {
-		return str == null || str.isBlank();
+	/**
+	 * Checks whether a range of the {@code char[]} contains only
+	 * {@link Character#isWhitespace(int) white space} code points.
+	 * 
+	 * @param chars  the {@code char[]} to be checked.
+	 * @param offset the index of the first char.
+	 * @param length the number of chars.
+	 * @return true if the range is empty or blank.
+	 * @throws IndexOutOfBoundsException if the range is out of bounds.
+	 * 
+	 * @since 0.5
+	 */
+	public static boolean isBlank(char[] chars, int offset, int length) {
+		return isBlank(CharSlice.of(chars, offset, length), 0, length);
+	}
+
+	/**
+	 * Gets a view of the {@code CharSequence} without leading and trailing
+	 * {@link Character#isWhitespace(char) white space}.
+	 * 
+	 * @param str the source {@code CharSequence}.
+	 * @return a view of the stripped chars, or {@code str} itself if there is
+	 *         nothing to strip.
+	 * 
+	 * @since 0.5
+	 */
+	public static CharSequence strip(CharSequence str) {
+		int begin = 0;
+		int end = str.length();
+
+		while (begin < end && Character.isWhitespace(str.charAt(begin)))
+			begin++;
+
+		while (end > begin && Character.isWhitespace(str.charAt(end - 1)))
+			end--;
+
+		return begin == 0 && end == str.length() ? str : CharSlice.of(str, begin, end);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,334 @@
+package tsi.too.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+
+import tsi.too.util.LocaleUtils;
+import tsi.too.util.LongList;
+
+/**
+ * Streams a delimited text file and parses one of its columns as currency
+ * amounts in cents.
+ *
+ * <p>
+ * The bytes are scanned in place, a fixed-size chunk (or memory-mapped window)
+ * at a time, so no {@code String} is created per line or field and the memory
+ * used does not grow with the file. A field is read the same way as
+ * {@link tsi.too.ext.CurrencyParser#parseCents(CharSequence, Locale)}: bytes
+ * other than ASCII digits and the locale separators are ignored (which skips
+ * {@code "R$"}, spaces and quotes) and the amount is rounded
+ * {@link java.math.RoundingMode#HALF_UP HALF_UP} to cents. Lines are ended by
+ * {@code '\n'}; blank lines are skipped. Quoted delimiters are not supported.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class CurrencyColumnReader {
+	private static final int CHUNK_SIZE = 1 << 16;
+	private static final long MAPPED_WINDOW_SIZE = 1L << 26;
+
+	private static final long WHOLE_LIMIT = (Long.MAX_VALUE - 9) / 10;
+	private static final long CENTS_LIMIT = (Long.MAX_VALUE - 100) / 100;
+
+	/**
+	 * An {@link ErrorHandler} that rejects the input on the first malformed line.
+	 *
+	 * @since 0.1
+	 */
+	public static final ErrorHandler FAIL_FAST = (line, column, message) -> {
+		throw new ParseException(String.format("%s at line %d, column %d", message, line, column), column);
+	};
+
+	private final byte delimiter;
+	private final int column;
+	private final int headerLines;
+	private final byte decimalSeparator;
+	private final byte groupingSeparator;
+
+	/**
+	 * Creates a reader for Brazilian currency amounts.
+	 *
+	 * @param delimiter   the field delimiter, such as {@code ';'}.
+	 * @param column      the zero-based index of the amount column.
+	 * @param headerLines the number of leading lines to skip.
+	 * @throws IllegalArgumentException if {@code column} or {@code headerLines}
+	 *                                  is negative.
+	 *
+	 * @since 0.1
+	 */
+	public CurrencyColumnReader(char delimiter, int column, int headerLines) {
+		this(delimiter, column, headerLines, LocaleUtils.BRAZILIAN_LOCALE);
+	}
+
+	/**
+	 * Creates a reader for currency amounts written in the given locale.
+	 *
+	 * @param delimiter   the field delimiter, such as {@code ';'}.
+	 * @param column      the zero-based index of the amount column.
+	 * @param headerLines the number of leading lines to skip.
+	 * @param locale      the base locale.
+	 * @throws IllegalArgumentException if {@code column} or {@code headerLines}
+	 *                                  is negative, or if the delimiter or the
+	 *                                  locale separators are not ASCII.
+	 *
+	 * @since 0.1
+	 */
+	public CurrencyColumnReader(char delimiter, int column, int headerLines, Locale locale) {
+		if (column < 0)
+			throw new IllegalArgumentException("column cannot be negative");
+
+		if (headerLines < 0)
+			throw new IllegalArgumentException("headerLines cannot be negative");
+
+		final DecimalFormatSymbols symbols = LocaleUtils.getDecimalFormatSymbols(locale);
+
+		this.delimiter = toAscii(delimiter, "delimiter");
+		this.column = column;
+		this.headerLines = headerLines;
+		this.decimalSeparator = toAscii(symbols.getDecimalSeparator(), "decimal separator");
+		this.groupingSeparator = symbols.getGroupingSeparator() < 0x80 ? (byte) symbols.getGroupingSeparator() : -1;
+	}
+
+	/**
+	 * Memory-maps a file, one window at a time, and reads its amounts.
+	 *
+	 * @param path the file to read.
+	 * @param sink receives every amount, in cents, in file order.
+	 * @return the number of amounts read.
+	 * @throws IOException    if the file cannot be read.
+	 * @throws ParseException if a line is malformed.
+	 *
+	 * @since 0.1
+	 */
+	public long read(Path path, LongConsumer sink) throws IOException, ParseException {
+		return read(path, sink, FAIL_FAST);
+	}
+
+	/**
+	 * Memory-maps a file, one window at a time, and reads its amounts.
+	 *
+	 * @param path         the file to read.
+	 * @param sink         receives every amount, in cents, in file order.
+	 * @param errorHandler decides what happens to malformed lines.
+	 * @return the number of amounts read.
+	 * @throws IOException    if the file cannot be read.
+	 * @throws ParseException if the {@code errorHandler} rejects a line.
+	 *
+	 * @since 0.1
+	 */
+	public long read(Path path, LongConsumer sink, ErrorHandler errorHandler) throws IOException, ParseException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final Scanner scanner = new Scanner(sink, errorHandler);
+			final long size = channel.size();
+
+			for (long position = 0; position < size; position += MAPPED_WINDOW_SIZE)
+				scanner.scan(channel.map(FileChannel.MapMode.READ_ONLY, position,
+						Math.min(MAPPED_WINDOW_SIZE, size - position)));
+
+			return scanner.finish();
+		}
+	}
+
+	/**
+	 * Reads the amounts of a channel, a fixed-size chunk at a time. The channel is
+	 * not closed.
+	 *
+	 * @param channel      the channel to read.
+	 * @param sink         receives every amount, in cents, in input order.
+	 * @param errorHandler decides what happens to malformed lines.
+	 * @return the number of amounts read.
+	 * @throws IOException    if the channel cannot be read.
+	 * @throws ParseException if the {@code errorHandler} rejects a line.
+	 *
+	 * @since 0.1
+	 */
+	public long read(ReadableByteChannel channel, LongConsumer sink, ErrorHandler errorHandler)
+			throws IOException, ParseException {
+		final Scanner scanner = new Scanner(sink, errorHandler);
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+
+		while (channel.read(buffer) != -1) {
+			buffer.flip();
+			scanner.scan(buffer);
+			buffer.clear();
+		}
+
+		return scanner.finish();
+	}
+
+	/**
+	 * Reads every amount of a file into a {@link LongList}.
+	 *
+	 * @param path the file to read.
+	 * @return the amounts, in cents, in file order.
+	 * @throws IOException    if the file cannot be read.
+	 * @throws ParseException if a line is malformed.
+	 *
+	 * @since 0.1
+	 */
+	public LongList readAll(Path path) throws IOException, ParseException {
+		final LongList amounts = new LongList();
+		read(path, amounts);
+
+		return amounts;
+	}
+
+	private static byte toAscii(char c, String name) {
+		if (c >= 0x80)
+			throw new IllegalArgumentException(name + " must be an ASCII character");
+
+		return (byte) c;
+	}
+
+	/**
+	 * Holds the scanning state of a single read.
+	 */
+	private class Scanner {
+		private final LongConsumer sink;
+		private final ErrorHandler errorHandler;
+
+		private long line = 1;
+		private int lineColumn;
+		private int field;
+		private int fieldColumn = 1;
+		private boolean blankLine = true;
+		private long count;
+
+		private long whole;
+		private long cents;
+		private int fractionDigits;
+		private boolean roundUp;
+		private boolean sawDigit;
+		private boolean sawDecimal;
+		private boolean stopped;
+		private boolean overflow;
+
+		private Scanner(LongConsumer sink, ErrorHandler errorHandler) {
+			this.sink = sink;
+			this.errorHandler = errorHandler;
+		}
+
+		private void scan(ByteBuffer buffer) throws ParseException {
+			final int limit = buffer.limit();
+
+			for (int i = buffer.position(); i < limit; i++)
+				accept(buffer.get(i));
+		}
+
+		private void accept(byte b) throws ParseException {
+			if (b == '\n') {
+				endLine();
+				return;
+			}
+
+			lineColumn++;
+
+			if (b != '\r' && b != ' ' && b != '\t')
+				blankLine = false;
+
+			if (b == delimiter) {
+				if (++field == column)
+					fieldColumn = lineColumn + 1;
+
+				return;
+			}
+
+			if (field != column || stopped || line <= headerLines)
+				return;
+
+			if (b >= '0' && b <= '9') {
+				sawDigit = true;
+
+				if (!sawDecimal) {
+					if (whole > WHOLE_LIMIT) {
+						overflow = true;
+						stopped = true;
+					} else {
+						whole = whole * 10 + (b - '0');
+					}
+				} else if (fractionDigits < 2) {
+					cents = cents * 10 + (b - '0');
+					fractionDigits++;
+				} else if (fractionDigits == 2) {
+					roundUp = b >= '5';
+					fractionDigits++;
+				}
+			} else if (b == '.' || b == ',') {
+				if (sawDecimal || (b != decimalSeparator && b != groupingSeparator))
+					stopped = true;
+				else
+					sawDecimal = b == decimalSeparator;
+			}
+		}
+
+		private void endLine() throws ParseException {
+			if (line > headerLines && !blankLine) {
+				if (field < column)
+					errorHandler.onError(line, lineColumn + 1, "Missing column " + column);
+				else if (!sawDigit)
+					errorHandler.onError(line, fieldColumn, "Unparseable amount");
+				else if (overflow || whole > CENTS_LIMIT)
+					errorHandler.onError(line, fieldColumn, "Amount out of range");
+				else {
+					sink.accept(whole * 100 + (fractionDigits == 1 ? cents * 10 : cents) + (roundUp ? 1 : 0));
+					count++;
+				}
+			}
+
+			line++;
+			lineColumn = 0;
+			field = 0;
+			fieldColumn = 1;
+			blankLine = true;
+			whole = 0;
+			cents = 0;
+			fractionDigits = 0;
+			roundUp = false;
+			sawDigit = false;
+			sawDecimal = false;
+			stopped = false;
+			overflow = false;
+		}
+
+		private long finish() throws ParseException {
+			if (lineColumn > 0)
+				endLine();
+
+			return count;
+		}
+	}
+
+	/**
+	 * Decides what happens to a malformed line.
+	 *
+	 * @author Lucas Cristovam
+	 *
+	 * @since 0.1
+	 */
+	public interface ErrorHandler {
+
+		/**
+		 * Called for every malformed line. Returning normally skips the line.
+		 *
+		 * @param line    the one-based line number.
+		 * @param column  the one-based byte column where the amount field starts.
+		 * @param message describes the problem.
+		 * @throws ParseException to stop reading.
+		 */
+		void onError(long line, int column, String message) throws ParseException;
+	}
+}
@@ -12,9 +12,11 @@ import java.util.List;
 import javax.swing.JFormattedTextField;
 import javax.swing.JOptionPane;
 import javax.swing.JTextArea;
-import javax.swing.text.MaskFormatter;
 
+import tsi.too.ext.BrazilianDateCodec;
+import tsi.too.ext.ParseResult;
 import tsi.too.ext.StringExt;
+import tsi.too.util.InputMask;
 
 /**
  * A simple class for user's input handling.
@@ -39,6 +41,7 @@ public class InputDialog {
 	public static Integer showIntegerInputDialog(String title, String message, InputValidator<Integer> validator) {
 		Integer input;
 		String s;
+		final ParseResult parsed = new ParseResult();
 
 		var isValid = false;
 
@@ -47,13 +50,8 @@ public class InputDialog {
 			if (s == null)
 				return null;
 
-			try {
-				input = Integer.parseInt(s);
-				isValid = validator.isValid(input);
-			} catch (NumberFormatException e) {
-				input = null;
-				isValid = false;
-			}
+			input = StringExt.tryParseInt(s, parsed) ? parsed.intValue() : null;
+			isValid = input != null && validator.isValid(input);
 
 			if (!isValid)
 				MessageDialog.showAlertDialog(title, validator.getErrorMessage(input));
@@ -76,6 +74,7 @@ public class InputDialog {
 	public static Long showLongInputDialog(String title, String message, InputValidator<Long> validator) {
 		Long input;
 		String s;
+		final ParseResult parsed = new ParseResult();
 		var isValid = false;
 
 		do {
@@ -83,12 +82,8 @@ public class InputDialog {
 			if (s == null)
 				return null;
 
-			try {
-				input = Long.parseLong(s);
-				isValid = validator.isValid(input);
-			} catch (NumberFormatException e) {
-				input = null;
-			}
+			input = StringExt.tryParseLong(s, parsed) ? parsed.longValue() : null;
+			isValid = input != null && validator.isValid(input);
 
 			if (!isValid)
 				MessageDialog.showAlertDialog(title, validator.getErrorMessage(input));
@@ -111,6 +106,7 @@ public class InputDialog {
 	public static Double showDoubleInputDialog(String title, String message, InputValidator<Double> validator) {
 		Double input;
 		String s;
+		final ParseResult parsed = new ParseResult();
 		var isValid = false;
 
 		do {
@@ -118,12 +114,8 @@ public class InputDialog {
 			if (s == null)
 				return null;
 
-			try {
-				input = StringExt.toDouble(s);
-				isValid = validator.isValid(input);
-			} catch (NumberFormatException ex) {
-				input = null;
-			}
+			input = StringExt.tryParseDouble(s, parsed) ? parsed.doubleValue() : null;
+			isValid = input != null && validator.isValid(input);
 
 			if (!isValid)
 				MessageDialog.showAlertDialog(title, validator.getErrorMessage(input));
@@ -230,10 +222,8 @@ public class InputDialog {
 		JFormattedTextField inputTextField;
 
 		try {
-			MaskFormatter maskFormatter = new MaskFormatter(mask);
-			maskFormatter.setPlaceholderCharacter('_');
-			inputTextField = new JFormattedTextField(maskFormatter);
-		} catch (Exception ex) {
+			inputTextField = new JFormattedTextField(InputMask.compile(mask).createFormatter());
+		} catch (IllegalArgumentException ex) {
 			inputTextField = new JFormattedTextField();
 		}
 
@@ -266,19 +256,12 @@ public class InputDialog {
 	public static LocalDate showBrazilianDateInputDialog(String title, String message,
 			InputValidator<LocalDate> validator) {
 		String input;
-		String mask = "##/##/####";
 		LocalDate result;
+		final ParseResult parsed = new ParseResult();
 		var isValid = false;
 
-		JFormattedTextField inputTextField;
-
-		try {
-			MaskFormatter maskFormatter = new MaskFormatter(mask);
-			maskFormatter.setPlaceholderCharacter('_');
-			inputTextField = new JFormattedTextField(maskFormatter);
-		} catch (Exception ex) {
-			inputTextField = new JFormattedTextField();
-		}
+		final JFormattedTextField inputTextField = new JFormattedTextField(
+				InputMask.BRAZILIAN_DATE.createFormatter());
 
 		do {
 			input = CustomInputDialog.showSingleLineInputDialog(title, message, inputTextField);
@@ -286,12 +269,8 @@ public class InputDialog {
 			if (input == null)
 				return null;
 
-			try {
-				String[] spl = input.split("/");
-				result = LocalDate.of(Integer.parseInt(spl[2]), Integer.parseInt(spl[1]), Integer.parseInt((spl[0])));
-			} catch (Exception ex) {
-				result = null;
-			}
+			result = BrazilianDateCodec.tryParseEpochDay(input, parsed) ? LocalDate.ofEpochDay(parsed.longValue())
+					: null;
 
 			isValid = result != null && validator.isValid(result);
 			if (!isValid)
@@ -0,0 +1,376 @@
+package tsi.too.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read-only text file mapped into memory, whose lines are indexed in the
+ * background, so any line of a file of hundreds of megabytes can be read
+ * without loading the file.
+ *
+ * <p>
+ * The index only keeps the start of every 64th line, so it takes about a byte
+ * per 8 lines; the lines in between are found by scanning the mapped bytes. The
+ * charset must encode {@code '\n'} as a single byte, as UTF-8, ISO-8859-1 and
+ * ASCII do. Lines end at {@code '\n'}, and a {@code '\r'} before it is dropped.
+ * </p>
+ *
+ * <p>
+ * {@link #getLineCount()} grows while the index is built; the lines it counts
+ * may be read from any thread. Closing the file stops the indexing, but the
+ * mapping itself is only released when it is garbage collected.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class MappedTextFile implements Closeable {
+
+	/**
+	 * The maximum number of bytes of a line that {@link #getLine(int)} decodes;
+	 * longer lines are cut.
+	 *
+	 * @since 0.1
+	 */
+	public static final int MAX_LINE_LENGTH = 1 << 16;
+
+	private static final int SEGMENT_SHIFT = 30;
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+	private static final int CHECKPOINT_SHIFT = 6;
+	private static final int CHECKPOINT_MASK = (1 << CHECKPOINT_SHIFT) - 1;
+	private static final int PUBLISH_INTERVAL = 1 << 20;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer[] segments;
+	private final long size;
+	private final Charset charset;
+
+	/** The start of every 64th line, written only by the indexing thread. */
+	private volatile long[] checkpoints = new long[1024];
+	private volatile int lineCount;
+	private volatile boolean indexed;
+	private volatile boolean closed;
+
+	private MappedTextFile(FileChannel channel, Charset charset) throws IOException {
+		this.channel = channel;
+		this.charset = charset;
+		this.size = channel.size();
+
+		final int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		segments = new MappedByteBuffer[count];
+
+		for (int i = 0; i < count; i++) {
+			final long position = (long) i << SEGMENT_SHIFT;
+			segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+					Math.min(SEGMENT_MASK + 1, size - position));
+		}
+	}
+
+	/**
+	 * Maps a UTF-8 file and starts indexing its lines in the background.
+	 *
+	 * @param path the file to open.
+	 * @return the mapped file.
+	 * @throws IOException if the file cannot be opened or mapped.
+	 *
+	 * @since 0.1
+	 */
+	public static MappedTextFile open(Path path) throws IOException {
+		return open(path, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Maps a file and starts indexing its lines in the background.
+	 *
+	 * @param path    the file to open.
+	 * @param charset the charset of the file, one that encodes {@code '\n'} as a
+	 *                single byte.
+	 * @return the mapped file.
+	 * @throws IOException if the file cannot be opened or mapped.
+	 *
+	 * @since 0.1
+	 */
+	public static MappedTextFile open(Path path, Charset charset) throws IOException {
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		try {
+			final MappedTextFile file = new MappedTextFile(channel, charset);
+			final Thread indexer = new Thread(file::index, "MappedTextFile-indexer");
+
+			indexer.setDaemon(true);
+			indexer.start();
+
+			return file;
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Gets the size of the file.
+	 *
+	 * @return the size in bytes.
+	 *
+	 * @since 0.1
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of lines indexed so far.
+	 *
+	 * @return the number of lines that can be read.
+	 *
+	 * @since 0.1
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * Checks whether every line has been indexed.
+	 *
+	 * @return true if {@link #getLineCount()} is the number of lines of the file.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isIndexed() {
+		return indexed;
+	}
+
+	/**
+	 * Reads a line.
+	 *
+	 * @param index the index of the line.
+	 * @return the line, without its terminator.
+	 * @throws IndexOutOfBoundsException if the line has not been indexed.
+	 *
+	 * @since 0.1
+	 */
+	public String getLine(int index) {
+		return getLines(index, 1)[0];
+	}
+
+	/**
+	 * Reads consecutive lines, scanning the file only once.
+	 *
+	 * @param firstIndex the index of the first line.
+	 * @param count      the number of lines.
+	 * @return the lines, without their terminators.
+	 * @throws IndexOutOfBoundsException if any of the lines has not been indexed.
+	 *
+	 * @since 0.1
+	 */
+	public String[] getLines(int firstIndex, int count) {
+		return getLines(firstIndex, count, null);
+	}
+
+	/**
+	 * Reads consecutive lines and where they start.
+	 *
+	 * @param starts receives the offset of every line and, at {@code count}, the
+	 *               offset after the last line; may be null.
+	 */
+	String[] getLines(int firstIndex, int count, long[] starts) {
+		checkLines(firstIndex, count);
+
+		final String[] lines = new String[count];
+		long position = getLineStart(firstIndex);
+
+		for (int i = 0; i < count; i++) {
+			final long newline = indexOfNewline(position);
+			long end = newline;
+
+			if (end > position && byteAt(end - 1) == '\r')
+				end--;
+
+			if (starts != null)
+				starts[i] = position;
+
+			lines[i] = decode(position, (int) Math.min(end - position, MAX_LINE_LENGTH));
+			position = newline + 1;
+		}
+
+		if (starts != null)
+			starts[count] = Math.min(position, size);
+
+		return lines;
+	}
+
+	/**
+	 * Gets where a line starts.
+	 *
+	 * @param index the index of the line.
+	 * @return the offset of the first byte of the line.
+	 * @throws IndexOutOfBoundsException if the line has not been indexed.
+	 *
+	 * @since 0.1
+	 */
+	public long getLineStart(int index) {
+		checkLines(index, 1);
+
+		long position = checkpoints[index >>> CHECKPOINT_SHIFT];
+
+		for (int i = index & CHECKPOINT_MASK; i > 0; i--)
+			position = indexOfNewline(position) + 1;
+
+		return position;
+	}
+
+	/**
+	 * Gets the line holding a byte.
+	 *
+	 * @param offset the offset of the byte.
+	 * @return the index of the line, or -1 if the line has not been indexed yet or
+	 *         the offset is not within the file.
+	 *
+	 * @since 0.1
+	 */
+	public int getLineOfOffset(long offset) {
+		final int available = lineCount;
+
+		if (offset < 0 || offset >= size || available == 0)
+			return -1;
+
+		final long[] starts = checkpoints;
+		int low = 0;
+		int high = (available - 1) >>> CHECKPOINT_SHIFT;
+
+		// the last checkpoint at or before the offset
+		while (low < high) {
+			final int middle = (low + high + 1) >>> 1;
+
+			if (starts[middle] <= offset)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+
+		int line = low << CHECKPOINT_SHIFT;
+
+		for (long position = indexOfNewline(starts[low]); position < offset; position = indexOfNewline(position + 1))
+			line++;
+
+		return line < available ? line : -1;
+	}
+
+	/**
+	 * Stops indexing. Lines already indexed may still be read until the mapping
+	 * is garbage collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		channel.close();
+	}
+
+	private void index() {
+		int lines = 0;
+		long[] starts = checkpoints;
+		long sinceLastPublish = 0;
+
+		for (int s = 0; s < segments.length && !closed; s++) {
+			final ByteBuffer segment = segments[s].duplicate();
+			final long base = (long) s << SEGMENT_SHIFT;
+			final int limit = segment.limit();
+
+			for (int i = 0; i < limit; i++) {
+				if (segment.get(i) != '\n')
+					continue;
+
+				// the line counted next starts after this newline
+				if ((++lines & CHECKPOINT_MASK) == 0) {
+					final int checkpoint = lines >>> CHECKPOINT_SHIFT;
+
+					if (checkpoint == starts.length)
+						checkpoints = starts = Arrays.copyOf(starts, starts.length * 2);
+
+					starts[checkpoint] = base + i + 1;
+				}
+
+				if (i - sinceLastPublish >= PUBLISH_INTERVAL) {
+					sinceLastPublish = i;
+					lineCount = lines;
+
+					if (closed)
+						return;
+				}
+			}
+
+			sinceLastPublish -= limit;
+		}
+
+		if (closed)
+			return;
+
+		// a last line without a terminator still counts
+		if (size > 0 && byteAt(size - 1) != '\n')
+			lines++;
+
+		lineCount = lines;
+		indexed = true;
+	}
+
+	private void checkLines(int firstIndex, int count) {
+		final int available = lineCount;
+
+		if (firstIndex < 0 || count < 0 || firstIndex > available - count)
+			throw new IndexOutOfBoundsException(
+					"Lines: " + firstIndex + " to " + (firstIndex + count) + ", Indexed: " + available);
+	}
+
+	int getSegmentCount() {
+		return segments.length;
+	}
+
+	/**
+	 * Gets a view of a mapped segment, covering the bytes from
+	 * {@code index << 30}.
+	 */
+	ByteBuffer getSegment(int index) {
+		return segments[index].duplicate();
+	}
+
+	static long getSegmentStart(int index) {
+		return (long) index << SEGMENT_SHIFT;
+	}
+
+	private long indexOfNewline(long from) {
+		for (long position = from; position < size; position++) {
+			if (byteAt(position) == '\n')
+				return position;
+		}
+
+		return size;
+	}
+
+	byte byteAt(long position) {
+		return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+	}
+
+	String decode(long position, int length) {
+		final byte[] bytes = new byte[length];
+		final int segment = (int) (position >>> SEGMENT_SHIFT);
+		final int offset = (int) (position & SEGMENT_MASK);
+
+		if (offset + length <= segments[segment].limit()) {
+			segments[segment].duplicate().position(offset).get(bytes);
+		} else {
+			for (int i = 0; i < length; i++)
+				bytes[i] = byteAt(position + i);
+		}
+
+		return new String(bytes, charset);
+	}
+}
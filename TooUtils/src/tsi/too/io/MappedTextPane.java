@@ -0,0 +1,145 @@
+package tsi.too.io;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.nio.charset.StandardCharsets;
+
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * A {@link MappedTextView} in a scroll pane, under a bar to find text in it.
+ *
+ * <p>
+ * Every change to the query starts a new {@link MappedTextSearch}, whose
+ * matches are highlighted as they arrive; the first one is selected as soon as
+ * it is found. Enter or the "Next" button selects the next match.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class MappedTextPane extends JPanel {
+	private static final long serialVersionUID = 1L;
+
+	private final MappedTextView view;
+	private final transient MappedTextSearch search;
+
+	private final JTextField queryField = new JTextField(20);
+	private final JCheckBox matchCaseBox = new JCheckBox("Match case");
+	private final JButton nextButton = new JButton("Next");
+	private final JLabel statusLabel = new JLabel();
+
+	/**
+	 * Creates a pane showing a file.
+	 *
+	 * @param file the file to show.
+	 *
+	 * @since 0.1
+	 */
+	public MappedTextPane(MappedTextFile file) {
+		super(new BorderLayout());
+
+		view = new MappedTextView(file);
+		search = new MappedTextSearch(file);
+
+		final JPanel searchBar = new JPanel(new FlowLayout(FlowLayout.LEADING));
+		searchBar.add(new JLabel("Find:"));
+		searchBar.add(queryField);
+		searchBar.add(matchCaseBox);
+		searchBar.add(nextButton);
+		searchBar.add(statusLabel);
+
+		add(searchBar, BorderLayout.NORTH);
+		add(new JScrollPane(view), BorderLayout.CENTER);
+
+		queryField.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				find();
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				find();
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+			}
+		});
+
+		matchCaseBox.addActionListener(e -> find());
+		queryField.addActionListener(e -> selectNext());
+		nextButton.addActionListener(e -> selectNext());
+		nextButton.setEnabled(false);
+	}
+
+	/**
+	 * Gets the view of the file.
+	 *
+	 * @return the view.
+	 *
+	 * @since 0.1
+	 */
+	public MappedTextView getView() {
+		return view;
+	}
+
+	@Override
+	public void removeNotify() {
+		search.cancel();
+		super.removeNotify();
+	}
+
+	private void find() {
+		final String query = queryField.getText();
+
+		search.cancel();
+		view.clearMatches(query.getBytes(StandardCharsets.UTF_8).length);
+		nextButton.setEnabled(false);
+
+		if (query.isEmpty()) {
+			statusLabel.setText("");
+			return;
+		}
+
+		statusLabel.setText("Searching...");
+		search.find(query, matchCaseBox.isSelected(), new MappedTextSearch.SearchListener() {
+			@Override
+			public void found(long[] offsets) {
+				final boolean first = view.getMatchCount() == 0;
+
+				view.addMatches(offsets);
+				nextButton.setEnabled(true);
+
+				if (first)
+					view.selectMatch(0);
+			}
+
+			@Override
+			public void finished(int total, boolean truncated) {
+				if (total == 0)
+					statusLabel.setText("No matches");
+				else if (truncated)
+					statusLabel.setText("First " + total + " matches");
+				else
+					statusLabel.setText(total == 1 ? "1 match" : total + " matches");
+			}
+		});
+	}
+
+	private void selectNext() {
+		final int count = view.getMatchCount();
+
+		if (count > 0)
+			view.selectMatch((view.getSelectedMatch() + 1) % count);
+	}
+}
@@ -0,0 +1,258 @@
+package tsi.too.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import tsi.too.util.LongList;
+
+/**
+ * Finds every occurrence of a text in a {@link MappedTextFile} in the
+ * background, streaming the matches to the event dispatch thread as they are
+ * found.
+ *
+ * <p>
+ * The file is scanned from its start with the Boyer-Moore-Horspool algorithm
+ * over the UTF-8 bytes of the query, in chunks that start small, so the first
+ * matches arrive quickly, and grow up to a few megabytes. Case-insensitive
+ * searches only fold ASCII letters. Starting a search cancels the running one,
+ * and the listener of a cancelled search is not called again.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class MappedTextSearch {
+
+	/**
+	 * The maximum number of matches a search reports.
+	 *
+	 * @since 0.1
+	 */
+	public static final int MAX_MATCHES = 1 << 20;
+
+	private static final int FIRST_CHUNK_SIZE = 1 << 16;
+	private static final int MAX_CHUNK_SIZE = 1 << 23;
+
+	private static final byte[] IDENTITY = folding(false);
+	private static final byte[] ASCII_LOWER_CASE = folding(true);
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), runnable -> {
+				final Thread thread = new Thread(runnable, "MappedTextSearch");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private final MappedTextFile file;
+	private volatile int generation;
+
+	/**
+	 * Creates a search over a file.
+	 *
+	 * @param file the file to search.
+	 *
+	 * @since 0.1
+	 */
+	public MappedTextSearch(MappedTextFile file) {
+		this.file = file;
+	}
+
+	/**
+	 * Starts finding a text, cancelling the running search.
+	 *
+	 * @param query     the text to find.
+	 * @param matchCase whether letters must match in case.
+	 * @param listener  receives the matches, on the event dispatch thread.
+	 * @throws IllegalArgumentException if {@code query} is null or empty.
+	 *
+	 * @since 0.1
+	 */
+	public void find(String query, boolean matchCase, SearchListener listener) {
+		if (query == null || query.isEmpty())
+			throw new IllegalArgumentException("query cannot be null or empty");
+
+		final byte[] pattern = query.getBytes(StandardCharsets.UTF_8);
+		final int task = ++generation;
+
+		if (!matchCase) {
+			for (int i = 0; i < pattern.length; i++)
+				pattern[i] = ASCII_LOWER_CASE[pattern[i] & 0xFF];
+		}
+
+		EXECUTOR.execute(() -> scan(task, pattern, matchCase, listener));
+	}
+
+	/**
+	 * Cancels the running search.
+	 *
+	 * @since 0.1
+	 */
+	public void cancel() {
+		generation++;
+	}
+
+	private void scan(int task, byte[] pattern, boolean matchCase, SearchListener listener) {
+		final int[] shifts = shifts(pattern);
+		final byte[] folding = matchCase ? IDENTITY : ASCII_LOWER_CASE;
+		final int length = pattern.length;
+		final LongList found = new LongList();
+		byte[] buffer = new byte[0];
+		int total = 0;
+		int chunkSize = FIRST_CHUNK_SIZE;
+
+		for (int s = 0; s < file.getSegmentCount(); s++) {
+			final ByteBuffer segment = file.getSegment(s);
+			final long base = MappedTextFile.getSegmentStart(s);
+			final int limit = segment.limit();
+
+			for (int from = 0; from < limit; from += chunkSize) {
+				if (task != generation)
+					return;
+
+				if (from > 0)
+					chunkSize = Math.min(chunkSize * 2, MAX_CHUNK_SIZE);
+
+				// a match may start anywhere in the chunk and end after it
+				final int end = Math.min(limit, from + chunkSize + length - 1);
+
+				if (buffer.length < end - from)
+					buffer = new byte[chunkSize + length - 1];
+
+				segment.position(from);
+				segment.get(buffer, 0, end - from);
+				find(buffer, end - from, pattern, shifts, folding, base + from, found);
+
+				if (total + found.size() >= MAX_MATCHES) {
+					publish(task, listener, found, MAX_MATCHES - total, true, MAX_MATCHES);
+					return;
+				}
+
+				if (!found.isEmpty()) {
+					total += found.size();
+					publish(task, listener, found, found.size(), false, total);
+					found.clear();
+				}
+			}
+
+			// matches crossing into the next segment
+			if (s + 1 < file.getSegmentCount()) {
+				for (long p = base + Math.max(0, limit - length + 1); p < base + limit; p++) {
+					if (p + length <= file.size() && matchesAt(p, pattern, folding))
+						found.add(p);
+				}
+			}
+		}
+
+		publish(task, listener, found, found.size(), true, total + found.size());
+	}
+
+	/**
+	 * Finds the matches starting in the first {@code length - pattern.length + 1}
+	 * bytes of a buffer.
+	 */
+	private static void find(byte[] buffer, int length, byte[] pattern, int[] shifts, byte[] folding, long offset,
+			LongList found) {
+		final int last = length - pattern.length;
+		final int tailIndex = pattern.length - 1;
+		final byte tailPattern = pattern[tailIndex];
+
+		for (int i = 0; i <= last;) {
+			final byte tail = folding[buffer[i + tailIndex] & 0xFF];
+
+			if (tail == tailPattern && matches(buffer, i, pattern, folding))
+				found.add(offset + i);
+
+			i += shifts[tail & 0xFF];
+		}
+	}
+
+	private void publish(int task, SearchListener listener, LongList offsets, int count, boolean finished,
+			int total) {
+		final long[] batch = count == offsets.size() ? offsets.toArray() : Arrays.copyOf(offsets.toArray(), count);
+
+		SwingUtilities.invokeLater(() -> {
+			if (task != generation)
+				return;
+
+			if (count > 0)
+				listener.found(batch);
+
+			if (finished)
+				listener.finished(total, total == MAX_MATCHES);
+		});
+	}
+
+	private static int[] shifts(byte[] pattern) {
+		final int[] shifts = new int[256];
+
+		Arrays.fill(shifts, pattern.length);
+
+		for (int i = 0; i < pattern.length - 1; i++)
+			shifts[pattern[i] & 0xFF] = pattern.length - 1 - i;
+
+		return shifts;
+	}
+
+	private static boolean matches(byte[] buffer, int position, byte[] pattern, byte[] folding) {
+		for (int i = pattern.length - 2; i >= 0; i--) {
+			if (folding[buffer[position + i] & 0xFF] != pattern[i])
+				return false;
+		}
+
+		return true;
+	}
+
+	private boolean matchesAt(long position, byte[] pattern, byte[] folding) {
+		for (int i = 0; i < pattern.length; i++) {
+			if (folding[file.byteAt(position + i) & 0xFF] != pattern[i])
+				return false;
+		}
+
+		return true;
+	}
+
+	private static byte[] folding(boolean toLowerCase) {
+		final byte[] folding = new byte[256];
+
+		for (int i = 0; i < folding.length; i++)
+			folding[i] = (byte) (toLowerCase && i >= 'A' && i <= 'Z' ? i + ('a' - 'A') : i);
+
+		return folding;
+	}
+
+	/**
+	 * Receives the matches of a search, on the event dispatch thread.
+	 *
+	 * @author Lucas Cristovam
+	 *
+	 * @since 0.1
+	 */
+	public interface SearchListener {
+
+		/**
+		 * Called with every batch of matches, in file order.
+		 *
+		 * @param offsets the offsets of the first byte of every match.
+		 */
+		void found(long[] offsets);
+
+		/**
+		 * Called once the whole file was searched.
+		 *
+		 * @param total     the number of matches.
+		 * @param truncated whether the search stopped at {@link #MAX_MATCHES}.
+		 */
+		void finished(int total, boolean truncated);
+	}
+}
@@ -0,0 +1,319 @@
+package tsi.too.io;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+
+/**
+ * A read-only view of a {@link MappedTextFile} that only reads and paints the
+ * lines in its visible area, for use inside a {@code JScrollPane}.
+ *
+ * <p>
+ * While the file is being indexed the view grows as lines are counted. The
+ * width follows the longest line painted so far. Text cannot be selected, but
+ * matches of a {@link MappedTextSearch} can be highlighted.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class MappedTextView extends JComponent implements Scrollable {
+	private static final long serialVersionUID = 1L;
+
+	private static final int VISIBLE_ROWS = 10;
+	private static final int VISIBLE_COLUMNS = 50;
+	private static final int MARGIN = 5;
+	private static final int REFRESH_DELAY = 250;
+	private static final String TAB = "    ";
+	private static final Color MATCH_COLOR = new Color(255, 235, 130);
+	private static final Color SELECTED_MATCH_COLOR = new Color(255, 170, 60);
+
+	private final transient MappedTextFile file;
+	private final Timer refresher;
+	private int shownLineCount = -1;
+	private int longestLine;
+
+	private long[] matches = new long[0];
+	private int matchCount;
+	private int matchLength;
+	private int selectedMatch = -1;
+
+	/**
+	 * Creates a view of a file.
+	 *
+	 * @param file the file to show.
+	 *
+	 * @since 0.1
+	 */
+	public MappedTextView(MappedTextFile file) {
+		this.file = file;
+
+		setFont(UIManager.getFont("TextArea.font"));
+		setBackground(UIManager.getColor("TextArea.background"));
+		setForeground(UIManager.getColor("TextArea.foreground"));
+		setOpaque(true);
+		setBorder(BorderFactory.createEmptyBorder(MARGIN, MARGIN, MARGIN, MARGIN));
+
+		refresher = new Timer(REFRESH_DELAY, e -> refresh());
+		refresh();
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+
+		if (!file.isIndexed())
+			refresher.start();
+	}
+
+	@Override
+	public void removeNotify() {
+		refresher.stop();
+		super.removeNotify();
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		final FontMetrics metrics = getFontMetrics(getFont());
+		final Insets insets = getInsets();
+		final long height = (long) file.getLineCount() * metrics.getHeight() + insets.top + insets.bottom;
+
+		return new Dimension(longestLine * metrics.charWidth('m') + insets.left + insets.right,
+				(int) Math.min(Integer.MAX_VALUE, height));
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		final Rectangle clip = g.getClipBounds();
+		final FontMetrics metrics = g.getFontMetrics(getFont());
+		final Insets insets = getInsets();
+		final int lineHeight = metrics.getHeight();
+		final int lineCount = file.getLineCount();
+
+		g.setColor(getBackground());
+		g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+		final int first = Math.max(0, (clip.y - insets.top) / lineHeight);
+		final int last = Math.min(lineCount - 1, (clip.y + clip.height - insets.top) / lineHeight);
+
+		if (first > last)
+			return;
+
+		final long[] starts = new long[last - first + 2];
+		final String[] lines = file.getLines(first, last - first + 1, starts);
+		int widest = longestLine;
+
+		g.setFont(getFont());
+		paintMatches(g, metrics, starts, first);
+		g.setColor(getForeground());
+
+		for (int i = 0; i < lines.length; i++) {
+			final String line = expandTabs(lines[i]);
+			final int baseline = insets.top + (first + i) * lineHeight + metrics.getAscent();
+
+			g.drawString(line, insets.left, baseline);
+			widest = Math.max(widest, line.length());
+		}
+
+		if (widest > longestLine) {
+			longestLine = widest;
+			revalidate();
+		}
+	}
+
+	/**
+	 * Removes every highlighted match.
+	 *
+	 * @param length the length in bytes of the matches added next.
+	 *
+	 * @since 0.1
+	 */
+	public void clearMatches(int length) {
+		matchCount = 0;
+		matchLength = length;
+		selectedMatch = -1;
+		repaint();
+	}
+
+	/**
+	 * Highlights more matches, which must come after the ones already added.
+	 *
+	 * @param offsets the offsets of the matches, in file order.
+	 *
+	 * @since 0.1
+	 */
+	public void addMatches(long[] offsets) {
+		if (matchCount + offsets.length > matches.length)
+			matches = Arrays.copyOf(matches, Math.max(matchCount + offsets.length, matches.length * 2));
+
+		System.arraycopy(offsets, 0, matches, matchCount, offsets.length);
+		matchCount += offsets.length;
+		repaint();
+	}
+
+	/**
+	 * Gets the number of highlighted matches.
+	 *
+	 * @return the number of matches.
+	 *
+	 * @since 0.1
+	 */
+	public int getMatchCount() {
+		return matchCount;
+	}
+
+	/**
+	 * Gets the selected match.
+	 *
+	 * @return the index of the selected match, or -1 if none is selected.
+	 *
+	 * @since 0.1
+	 */
+	public int getSelectedMatch() {
+		return selectedMatch;
+	}
+
+	/**
+	 * Selects a match and scrolls to it, if its line has been indexed.
+	 *
+	 * @param index the index of the match.
+	 * @throws IndexOutOfBoundsException if there is no such match.
+	 *
+	 * @since 0.1
+	 */
+	public void selectMatch(int index) {
+		if (index < 0 || index >= matchCount)
+			throw new IndexOutOfBoundsException("Match: " + index + ", Matches: " + matchCount);
+
+		selectedMatch = index;
+		repaint();
+
+		final int line = file.getLineOfOffset(matches[index]);
+
+		if (line < 0)
+			return;
+
+		final FontMetrics metrics = getFontMetrics(getFont());
+		final Insets insets = getInsets();
+		final long start = file.getLineStart(line);
+		final int x = insets.left + width(metrics, start, matches[index]);
+		final int y = insets.top + line * metrics.getHeight();
+
+		scrollRectToVisible(new Rectangle(x, y, width(metrics, matches[index], matches[index] + matchLength),
+				metrics.getHeight()));
+	}
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		final FontMetrics metrics = getFontMetrics(getFont());
+		final Insets insets = getInsets();
+
+		return new Dimension(VISIBLE_COLUMNS * metrics.charWidth('m') + insets.left + insets.right,
+				VISIBLE_ROWS * metrics.getHeight() + insets.top + insets.bottom);
+	}
+
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+		final FontMetrics metrics = getFontMetrics(getFont());
+
+		return orientation == SwingConstants.VERTICAL ? metrics.getHeight() : metrics.charWidth('m');
+	}
+
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		return getParent() != null && getParent().getWidth() > getPreferredSize().width;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		return getParent() != null && getParent().getHeight() > getPreferredSize().height;
+	}
+
+	@Override
+	public void setFont(Font font) {
+		super.setFont(font);
+		revalidate();
+	}
+
+	private void paintMatches(Graphics g, FontMetrics metrics, long[] starts, int firstLine) {
+		final int lines = starts.length - 1;
+		int match = lowerBound(starts[0]);
+		int line = 0;
+
+		for (; match < matchCount && matches[match] < starts[lines]; match++) {
+			final long offset = matches[match];
+
+			while (starts[line + 1] <= offset)
+				line++;
+
+			if (offset - starts[line] > MappedTextFile.MAX_LINE_LENGTH)
+				continue;
+
+			final Insets insets = getInsets();
+			final int x = insets.left + width(metrics, starts[line], offset);
+			final int y = insets.top + (firstLine + line) * metrics.getHeight();
+
+			g.setColor(match == selectedMatch ? SELECTED_MATCH_COLOR : MATCH_COLOR);
+			g.fillRect(x, y, width(metrics, offset, offset + matchLength), metrics.getHeight());
+		}
+	}
+
+	/**
+	 * Gets the index of the first match at or after an offset.
+	 */
+	private int lowerBound(long offset) {
+		int low = 0;
+		int high = matchCount;
+
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+
+			if (matches[middle] < offset)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		return low;
+	}
+
+	private int width(FontMetrics metrics, long from, long to) {
+		return metrics.stringWidth(expandTabs(file.decode(from, (int) Math.min(to - from, file.size() - from))));
+	}
+
+	private static String expandTabs(String line) {
+		return line.indexOf('\t') < 0 ? line : line.replace("\t", TAB);
+	}
+
+	private void refresh() {
+		final boolean indexed = file.isIndexed();
+		final int lineCount = file.getLineCount();
+
+		if (lineCount != shownLineCount) {
+			shownLineCount = lineCount;
+			revalidate();
+			repaint();
+		}
+
+		if (indexed)
+			refresher.stop();
+	}
+}
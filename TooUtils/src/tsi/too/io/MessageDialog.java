@@ -11,6 +11,9 @@ import static javax.swing.JOptionPane.showMessageDialog;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Frame;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.BorderFactory;
 import javax.swing.JOptionPane;
@@ -20,14 +23,20 @@ import javax.swing.JTextArea;
 import javax.swing.table.TableColumnModel;
 import javax.swing.table.TableModel;
 
+import tsi.too.util.ColumnWidthSampler;
+import tsi.too.util.PagedTableModel;
+import tsi.too.util.ParallelRowSorter;
+import tsi.too.util.UiUtils;
+
 /**
  * Simple class to pop up a standard dialog box that informs user of something.
  * 
  * @author Lucas Cristovam
  * 
- * @version 0.3
+ * @version 0.5
  */
 public class MessageDialog {
+	private static final NotificationQueue NOTIFICATIONS = new NotificationQueue();
     
 	/**
      * Brings up an information-message dialog.
@@ -131,6 +140,96 @@ public class MessageDialog {
     }
 
 
+    /**
+     * Posts an information message to be shown in a non-modal dialog, without
+     * waiting for it; see {@link NotificationQueue}.
+     *
+     * @param parentComponent the {@link Frame} to which this dialog is associated.
+     * @param title   the <code>Object</code> to display in the dialog title bar.
+     * @param message the <code>Object</code> to display.
+     * @return a future completed when the dialog is closed.
+     * 
+     * @since 0.5
+     */
+    public static CompletableFuture<Void> showInformationDialogAsync(Component parentComponent, String title,
+            Object message) {
+        return NOTIFICATIONS.post(parentComponent, title, message, INFORMATION_MESSAGE);
+    }
+    
+    /**
+     * Posts an information message to be shown in a non-modal dialog, without
+     * waiting for it; see {@link NotificationQueue}.
+     *
+     * @param title   the <code>Object</code> to display in the dialog title bar.
+     * @param message the <code>Object</code> to display.
+     * @return a future completed when the dialog is closed.
+     * 
+     * @since 0.5
+     */
+    public static CompletableFuture<Void> showInformationDialogAsync(String title, Object message) {
+        return showInformationDialogAsync(null, title, message);
+    }
+    
+    /**
+     * Posts an alert message to be shown in a non-modal dialog, without waiting
+     * for it; see {@link NotificationQueue}.
+     *
+     * @param parentComponent the {@link Frame} to which this dialog is associated.
+     * @param title   the <code>Object</code> to display in the dialog title bar.
+     * @param message the <code>Object</code> to display.
+     * @return a future completed when the dialog is closed.
+     * 
+     * @since 0.5
+     */
+    public static CompletableFuture<Void> showAlertDialogAsync(Component parentComponent, String title,
+            Object message) {
+        return NOTIFICATIONS.post(parentComponent, title, message, WARNING_MESSAGE);
+    }
+    
+    /**
+     * Posts an alert message to be shown in a non-modal dialog, without waiting
+     * for it; see {@link NotificationQueue}.
+     *
+     * @param title   the <code>Object</code> to display in the dialog title bar.
+     * @param message the <code>Object</code> to display.
+     * @return a future completed when the dialog is closed.
+     * 
+     * @since 0.5
+     */
+    public static CompletableFuture<Void> showAlertDialogAsync(String title, Object message) {
+        return showAlertDialogAsync(null, title, message);
+    }
+    
+    /**
+     * Posts an error message to be shown in a non-modal dialog, without waiting
+     * for it; see {@link NotificationQueue}.
+     *
+     * @param parentComponent the {@link Frame} to which this dialog is associated.
+     * @param title   the <code>Object</code> to display in the dialog title bar.
+     * @param message the <code>Object</code> to display.
+     * @return a future completed when the dialog is closed.
+     * 
+     * @since 0.5
+     */
+    public static CompletableFuture<Void> showErrorDialogAsync(Component parentComponent, String title,
+            Object message) {
+        return NOTIFICATIONS.post(parentComponent, title, message, JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Posts an error message to be shown in a non-modal dialog, without waiting
+     * for it; see {@link NotificationQueue}.
+     *
+     * @param title   the <code>Object</code> to display in the dialog title bar.
+     * @param message the <code>Object</code> to display.
+     * @return a future completed when the dialog is closed.
+     * 
+     * @since 0.5
+     */
+    public static CompletableFuture<Void> showErrorDialogAsync(String title, Object message) {
+        return showErrorDialogAsync(null, title, message);
+    }
+
     /**
      * Brings up a confirmation dialog with <code>YES_NO_OPTION</code> options.
      *
@@ -200,13 +299,48 @@ public class MessageDialog {
         showTextMessage(null, title, message);
     }
     
+    /**
+     * Brings up an information-message dialog showing a text file, which is
+     * memory-mapped and only read for the lines in view, so files of any size
+     * open at once, with a bar to find text in it.
+     *
+     * @param parentComponent the {@link Frame} to which this dialog is associated.
+     * @param title   the <code>Object</code> to display in the dialog title bar.
+     * @param file    the UTF-8 file to display.
+     * @throws IOException if the file cannot be opened.
+     * 
+     * @since 0.4
+     * 
+     * @see MappedTextFile
+     */
+    public static void showTextMessage(Component parentComponent, String title, Path file) throws IOException {
+        try (MappedTextFile text = MappedTextFile.open(file)) {
+            showPlainMessageDialog(parentComponent, title, new MappedTextPane(text));
+        }
+    }
+    
+    /**
+     * Brings up an information-message dialog showing a text file, see
+     * {@link #showTextMessage(Component, String, Path)}.
+     *
+     * @param title   the <code>Object</code> to display in the dialog title bar.
+     * @param file    the UTF-8 file to display.
+     * @throws IOException if the file cannot be opened.
+     * 
+     * @since 0.4
+     */
+    public static void showTextMessage(String title, Path file) throws IOException {
+        showTextMessage(null, title, file);
+    }
+    
     /**
      * Displays a table in a message box based on {@link TableModel}
      * 
      * @param parentComponent the {@link Frame} to which this dialog is associated.
      * @param title the dialog title
      * @param tableModel the {@link TableModel} for the displaying table.
-     * @param colunsWidth the columns width
+     * @param colunsWidth the columns width, overriding the widths measured from a
+     *                    sample of rows; may be null or shorter than the columns.
      * @param tableDimension the preferred table {@link Dimension}
      * 
      * @since 0.1
@@ -219,8 +353,14 @@ public class MessageDialog {
     		Dimension tableDimension
     ) {
 		JTable table = new JTable(tableModel);
+		UiUtils.setCachingRenderers(table);
+		
+		// a paged model would have to load every row to be sorted
+		if (!(tableModel instanceof PagedTableModel))
+			table.setRowSorter(new ParallelRowSorter(tableModel));
 		
 		TableColumnModel taColumnModel = table.getColumnModel();
+		ColumnWidthSampler.fitColumns(table);
 		
 		if(colunsWidth != null) {
 			for(int i = 0; i < colunsWidth.length; i++)
@@ -236,7 +376,8 @@ public class MessageDialog {
      * 
      * @param title the dialog title
      * @param tableModel the {@link TableModel} for the displaying table.
-     * @param colunsWidth the columns width
+     * @param colunsWidth the columns width, overriding the widths measured from a
+     *                    sample of rows; may be null or shorter than the columns.
      * @param tableDimension the preferred table {@link Dimension}
      * 
      * @since 0.1
@@ -247,6 +388,6 @@ public class MessageDialog {
     		int[] colunsWidth, 
     		Dimension tableDimension
     ) {
-    	showDataTable( title, tableModel, colunsWidth, tableDimension);
+    	showDataTable(null, title, tableModel, colunsWidth, tableDimension);
 	}
 }
\ No newline at end of file
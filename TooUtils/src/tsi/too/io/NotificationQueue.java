@@ -0,0 +1,270 @@
+package tsi.too.io;
+
+import java.awt.Component;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JDialog;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * Shows message dialogs posted from any thread without blocking it, one
+ * {@link JOptionPane} per message, opened as non-modal dialogs on the event
+ * dispatch thread.
+ *
+ * <p>
+ * A message equal to one that is still waiting to be shown, or that was shown
+ * less than the coalescing window ago and is still open, is not shown again:
+ * the open entry counts it in its title instead, as in "Error (3 times)". At
+ * most a fixed number of dialogs is open at once; the others wait, in the order
+ * they were posted, until one is closed.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class NotificationQueue {
+
+	/**
+	 * The default coalescing window, in milliseconds.
+	 *
+	 * @since 0.1
+	 */
+	public static final long DEFAULT_COALESCING_WINDOW = 2000;
+
+	/**
+	 * The default maximum number of dialogs open at once.
+	 *
+	 * @since 0.1
+	 */
+	public static final int DEFAULT_MAX_VISIBLE = 3;
+
+	private static final int CASCADE_OFFSET = 24;
+
+	private final long windowNanos;
+	private final int maxVisible;
+
+	private final Map<Key, Entry> open = new HashMap<>();
+	private final ArrayDeque<Entry> waiting = new ArrayDeque<>();
+	private int visible;
+	private boolean scheduled;
+
+	/**
+	 * Creates a queue with the {@link #DEFAULT_COALESCING_WINDOW} and
+	 * {@link #DEFAULT_MAX_VISIBLE}.
+	 *
+	 * @since 0.1
+	 */
+	public NotificationQueue() {
+		this(DEFAULT_COALESCING_WINDOW, DEFAULT_MAX_VISIBLE);
+	}
+
+	/**
+	 * Creates a queue.
+	 *
+	 * @param coalescingWindow how long, in milliseconds, an open dialog still
+	 *                         takes in the messages equal to its own.
+	 * @param maxVisible       the maximum number of dialogs open at once.
+	 * @throws IllegalArgumentException if {@code coalescingWindow} is negative or
+	 *                                  {@code maxVisible} is not positive.
+	 *
+	 * @since 0.1
+	 */
+	public NotificationQueue(long coalescingWindow, int maxVisible) {
+		if (coalescingWindow < 0)
+			throw new IllegalArgumentException("coalescingWindow cannot be negative: " + coalescingWindow);
+
+		if (maxVisible <= 0)
+			throw new IllegalArgumentException("maxVisible must be positive: " + maxVisible);
+
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(coalescingWindow);
+		this.maxVisible = maxVisible;
+	}
+
+	/**
+	 * Posts a message to be shown in a dialog, returning at once. May be called
+	 * from any thread.
+	 *
+	 * @param parentComponent the component the dialog is shown over; may be null.
+	 * @param title           the dialog title.
+	 * @param message         the <code>Object</code> to display.
+	 * @param messageType     one of the {@link JOptionPane} message types.
+	 * @return a future completed on the event dispatch thread when the dialog
+	 *         showing the message is closed, shared by every message coalesced
+	 *         into it; completed exceptionally if the dialog cannot be shown.
+	 *
+	 * @since 0.1
+	 */
+	public CompletableFuture<Void> post(Component parentComponent, String title, Object message, int messageType) {
+		final Key key = new Key(parentComponent, title, message, messageType);
+		final long now = System.nanoTime();
+
+		synchronized (this) {
+			final Entry existing = open.get(key);
+
+			if (existing != null && (!existing.shown || now - existing.shownAt < windowNanos)) {
+				existing.count++;
+
+				if (existing.shown)
+					SwingUtilities.invokeLater(existing::updateTitle);
+
+				return existing.future;
+			}
+
+			final Entry entry = new Entry(key);
+
+			open.put(key, entry);
+			waiting.add(entry);
+
+			if (!scheduled) {
+				scheduled = true;
+				SwingUtilities.invokeLater(this::showWaiting);
+			}
+
+			return entry.future;
+		}
+	}
+
+	/**
+	 * Gets the number of messages waiting for a dialog.
+	 *
+	 * @return the number of messages not shown yet, not counting the coalesced
+	 *         ones.
+	 *
+	 * @since 0.1
+	 */
+	public synchronized int getWaitingCount() {
+		return waiting.size();
+	}
+
+	private void showWaiting() {
+		for (;;) {
+			final Entry entry;
+			final int slot;
+
+			synchronized (this) {
+				if (visible >= maxVisible || waiting.isEmpty()) {
+					scheduled = false;
+					return;
+				}
+
+				entry = waiting.poll();
+				entry.shown = true;
+				entry.shownAt = System.nanoTime();
+				slot = visible++;
+			}
+
+			show(entry, slot);
+		}
+	}
+
+	private void show(Entry entry, int slot) {
+		try {
+			final JOptionPane pane = new JOptionPane(entry.key.message, entry.key.messageType);
+			final JDialog dialog = pane.createDialog(entry.key.parentComponent, entry.getTitle());
+
+			dialog.setModal(false);
+			dialog.setLocation(dialog.getX() + slot * CASCADE_OFFSET, dialog.getY() + slot * CASCADE_OFFSET);
+			dialog.addComponentListener(new ComponentAdapter() {
+				@Override
+				public void componentHidden(ComponentEvent e) {
+					dialog.dispose();
+					closed(entry, null);
+					showWaiting();
+				}
+			});
+
+			entry.dialog = dialog;
+			dialog.setVisible(true);
+		} catch (RuntimeException ex) {
+			// the loop of showWaiting goes on with the next entry
+			closed(entry, ex);
+		}
+	}
+
+	private void closed(Entry entry, Throwable failure) {
+		if (entry.future.isDone())
+			return;
+
+		synchronized (this) {
+			visible--;
+			open.remove(entry.key, entry);
+		}
+
+		if (failure == null)
+			entry.future.complete(null);
+		else
+			entry.future.completeExceptionally(failure);
+	}
+
+	private static final class Key {
+		final Component parentComponent;
+		final String title;
+		final Object message;
+		final int messageType;
+
+		Key(Component parentComponent, String title, Object message, int messageType) {
+			this.parentComponent = parentComponent;
+			this.title = title;
+			this.message = message;
+			this.messageType = messageType;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+
+			final Key other = (Key) obj;
+
+			return parentComponent == other.parentComponent && messageType == other.messageType
+					&& Objects.equals(title, other.title) && Objects.equals(message, other.message);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(parentComponent), title, message, messageType);
+		}
+	}
+
+	/**
+	 * A dialog, waiting or open, and the messages coalesced into it. Guarded by
+	 * the queue, except {@link #dialog}, which is only used on the event dispatch
+	 * thread.
+	 */
+	private final class Entry {
+		final Key key;
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+		int count = 1;
+		boolean shown;
+		long shownAt;
+		JDialog dialog;
+
+		Entry(Key key) {
+			this.key = key;
+		}
+
+		String getTitle() {
+			final int times;
+
+			synchronized (NotificationQueue.this) {
+				times = count;
+			}
+
+			return times == 1 ? key.title : key.title + " (" + times + " times)";
+		}
+
+		void updateTitle() {
+			if (dialog != null)
+				dialog.setTitle(getTitle());
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package tsi.too.util;
+
+import java.awt.Component;
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.swing.JTable;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableModel;
+
+/**
+ * A table cell renderer that caches the text of the cells it renders, so a
+ * repaint or a scroll back over the same cells does not format their values
+ * again.
+ *
+ * <p>
+ * The cache is keyed by model row and column and holds a fixed number of
+ * entries, enough for the cells on screen; an entry is only used while the
+ * cell still holds an equal value. Entries are dropped when the model fires a
+ * {@link TableModelEvent} for their cells. Like
+ * {@link DefaultTableCellRenderer}, the same label is returned for every cell,
+ * and the alignment is set once instead of on every call.
+ * </p>
+ *
+ * <p>
+ * Subclasses only format values, in {@link #format(Object)}. Like every Swing
+ * renderer, this class must only be used on the event dispatch thread.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public abstract class CachingCellRenderer extends DefaultTableCellRenderer implements TableModelListener {
+	private static final long serialVersionUID = 1L;
+
+	private static final int DEFAULT_CACHE_SIZE = 1 << 12;
+	private static final long NO_KEY = -1L;
+
+	private final long[] keys;
+	private final Object[] values;
+	private final String[] texts;
+	private final int mask;
+
+	private transient TableModel model;
+
+	/**
+	 * Creates a renderer with the given horizontal alignment.
+	 *
+	 * @param alignment one of the {@link javax.swing.SwingConstants} alignments.
+	 *
+	 * @since 0.1
+	 */
+	protected CachingCellRenderer(int alignment) {
+		this(alignment, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates a renderer with the given horizontal alignment and cache size.
+	 *
+	 * @param alignment one of the {@link javax.swing.SwingConstants} alignments.
+	 * @param cacheSize the number of cached cells, rounded up to a power of two.
+	 * @throws IllegalArgumentException if {@code cacheSize} is not positive.
+	 *
+	 * @since 0.1
+	 */
+	protected CachingCellRenderer(int alignment, int cacheSize) {
+		if (cacheSize <= 0 || cacheSize > 1 << 30)
+			throw new IllegalArgumentException("cacheSize must be between 1 and 2^30");
+
+		final int size = Integer.highestOneBit(cacheSize) == cacheSize ? cacheSize
+				: Integer.highestOneBit(cacheSize) << 1;
+
+		keys = new long[size];
+		values = new Object[size];
+		texts = new String[size];
+		mask = size - 1;
+		Arrays.fill(keys, NO_KEY);
+		setHorizontalAlignment(alignment);
+	}
+
+	/**
+	 * Formats a non-null cell value.
+	 *
+	 * @param value the value of the cell.
+	 * @return the text to show.
+	 *
+	 * @since 0.1
+	 */
+	protected abstract String format(Object value);
+
+	@Override
+	public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus,
+			int row, int column) {
+		String text = "";
+
+		if (value != null) {
+			if (table == null || row < 0 || column < 0) {
+				text = format(value);
+			} else {
+				listenTo(table.getModel());
+				text = getText(table.convertRowIndexToModel(row), table.convertColumnIndexToModel(column), value);
+			}
+		}
+
+		return super.getTableCellRendererComponent(table, text, isSelected, hasFocus, row, column);
+	}
+
+	@Override
+	protected void setValue(Object value) {
+		// the value is always the formatted text, see getTableCellRendererComponent
+		setText(value == null ? "" : value.toString());
+	}
+
+	@Override
+	public void setText(String text) {
+		// skips the property change and repaint when a cell shows the same text
+		if (!Objects.equals(text, getText()))
+			super.setText(text);
+	}
+
+	/**
+	 * Drops the cached text of the cells the event changed.
+	 *
+	 * @since 0.1
+	 */
+	@Override
+	public void tableChanged(TableModelEvent e) {
+		final int firstRow = e.getFirstRow();
+		final int lastRow = e.getLastRow();
+
+		if (firstRow == TableModelEvent.HEADER_ROW || e.getType() != TableModelEvent.UPDATE) {
+			// rows or columns moved, so every key may now point to another cell
+			clearCache();
+			return;
+		}
+
+		final int column = e.getColumn();
+
+		for (int i = 0; i < keys.length; i++) {
+			final long key = keys[i];
+
+			if (key == NO_KEY)
+				continue;
+
+			final int keyRow = (int) (key >>> 32);
+			final int keyColumn = (int) key;
+
+			if (keyRow >= firstRow && keyRow <= lastRow
+					&& (column == TableModelEvent.ALL_COLUMNS || column == keyColumn))
+				evict(i);
+		}
+	}
+
+	/**
+	 * Drops every cached text.
+	 *
+	 * @since 0.1
+	 */
+	public void clearCache() {
+		Arrays.fill(keys, NO_KEY);
+		Arrays.fill(values, null);
+		Arrays.fill(texts, null);
+	}
+
+	private String getText(int modelRow, int modelColumn, Object value) {
+		final long key = (long) modelRow << 32 | modelColumn & 0xFFFFFFFFL;
+		final int slot = slot(modelRow, modelColumn);
+
+		if (keys[slot] == key && value.equals(values[slot]))
+			return texts[slot];
+
+		final String text = format(value);
+		keys[slot] = key;
+		values[slot] = value;
+		texts[slot] = text;
+
+		return text;
+	}
+
+	private int slot(int row, int column) {
+		final int h = (row * 0x9E3779B9) ^ (column * 0x85EBCA6B);
+
+		return (h ^ h >>> 16) & mask;
+	}
+
+	private void evict(int slot) {
+		keys[slot] = NO_KEY;
+		values[slot] = null;
+		texts[slot] = null;
+	}
+
+	private void listenTo(TableModel tableModel) {
+		if (tableModel == model)
+			return;
+
+		if (model != null)
+			model.removeTableModelListener(this);
+
+		clearCache();
+		model = tableModel;
+
+		if (model != null)
+			model.addTableModelListener(this);
+	}
+}
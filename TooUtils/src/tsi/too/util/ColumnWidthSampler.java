@@ -0,0 +1,312 @@
+package tsi.too.util;
+
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Insets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
+
+/**
+ * Sets the preferred widths of the columns of a {@link JTable} from the widths
+ * of their header and of a sample of their cells, instead of every cell.
+ *
+ * <p>
+ * The sample holds the first and the last rows of the table and rows picked at
+ * random in between, so the cost of sizing a table depends on the sample size
+ * and not on the number of rows. The cells are rendered on the event dispatch
+ * thread, but the widths of their texts are measured in the background when the
+ * table has more rows than the sample, and applied on the event dispatch thread
+ * when done. A column whose preferred width is changed in the meantime, by the
+ * caller or by the user, keeps that width. Texts are measured in the font of
+ * the first label of their column, and their widths are cached per font.
+ * </p>
+ *
+ * <p>
+ * For a {@link PagedTableModel}, only the sampled rows already loaded are
+ * measured, so sizing never loads pages. Tables without rows to measure keep
+ * their widths.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public final class ColumnWidthSampler {
+
+	/**
+	 * The number of rows sampled by {@link #fitColumns(JTable)}.
+	 *
+	 * @since 0.1
+	 */
+	public static final int DEFAULT_SAMPLE_SIZE = 256;
+
+	/**
+	 * The widest a column is made, in pixels.
+	 *
+	 * @since 0.1
+	 */
+	public static final int MAX_WIDTH = 400;
+
+	private static final int MAX_CACHED_WIDTHS = 1 << 12;
+
+	private static final Map<Font, Map<String, Integer>> WIDTHS = new HashMap<>();
+
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(), runnable -> {
+				final Thread thread = new Thread(runnable, "ColumnWidthSampler");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private ColumnWidthSampler() {
+	}
+
+	/**
+	 * Sizes every column of a table from a sample of {@link #DEFAULT_SAMPLE_SIZE}
+	 * rows. Must be called on the event dispatch thread.
+	 *
+	 * @param table the table to size.
+	 *
+	 * @since 0.1
+	 */
+	public static void fitColumns(JTable table) {
+		fitColumns(table, DEFAULT_SAMPLE_SIZE);
+	}
+
+	/**
+	 * Sizes every column of a table from a sample of its rows. Must be called on
+	 * the event dispatch thread.
+	 *
+	 * @param table      the table to size.
+	 * @param sampleSize the maximum number of rows measured.
+	 * @throws IllegalArgumentException if {@code sampleSize} is not positive.
+	 *
+	 * @since 0.1
+	 */
+	public static void fitColumns(JTable table, int sampleSize) {
+		if (sampleSize <= 0)
+			throw new IllegalArgumentException("sampleSize must be positive: " + sampleSize);
+
+		final int rowCount = table.getRowCount();
+		final int[] rows = loadedRows(table, sampleRows(rowCount, sampleSize));
+
+		// without cells the headers alone would make the columns too narrow
+		if (rows.length == 0)
+			return;
+
+		final TableColumnModel columnModel = table.getColumnModel();
+		final ColumnSample[] samples = new ColumnSample[columnModel.getColumnCount()];
+
+		for (int column = 0; column < samples.length; column++)
+			samples[column] = sample(table, column, rows);
+
+		if (rowCount <= sampleSize) {
+			apply(table, samples, measure(samples));
+			return;
+		}
+
+		EXECUTOR.execute(() -> {
+			final int[] widths = measure(samples);
+			SwingUtilities.invokeLater(() -> apply(table, samples, widths));
+		});
+	}
+
+	/**
+	 * Picks the rows to measure: a quarter of the sample from the top, a quarter
+	 * from the bottom and the rest at random in between, in ascending order.
+	 *
+	 * @param rowCount   the number of rows.
+	 * @param sampleSize the maximum number of rows picked.
+	 * @return the indexes of the picked rows, without repetitions.
+	 *
+	 * @since 0.1
+	 */
+	public static int[] sampleRows(int rowCount, int sampleSize) {
+		if (rowCount <= sampleSize) {
+			final int[] rows = new int[rowCount];
+
+			for (int i = 0; i < rowCount; i++)
+				rows[i] = i;
+
+			return rows;
+		}
+
+		final int edge = sampleSize / 4;
+		final int[] rows = new int[sampleSize];
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		int count = 0;
+
+		for (int i = 0; i < edge; i++) {
+			rows[count++] = i;
+			rows[count++] = rowCount - edge + i;
+		}
+
+		while (count < sampleSize)
+			rows[count++] = random.nextInt(edge, rowCount - edge);
+
+		Arrays.sort(rows);
+
+		// drops the random rows picked twice
+		int distinct = 1;
+
+		for (int i = 1; i < rows.length; i++) {
+			if (rows[i] != rows[distinct - 1])
+				rows[distinct++] = rows[i];
+		}
+
+		return Arrays.copyOf(rows, distinct);
+	}
+
+	/**
+	 * Drops the rows of a {@link PagedTableModel} whose page is not loaded, since
+	 * reading them would only request pages and return the placeholder.
+	 */
+	private static int[] loadedRows(JTable table, int[] rows) {
+		if (!(table.getModel() instanceof PagedTableModel))
+			return rows;
+
+		final PagedTableModel model = (PagedTableModel) table.getModel();
+		int count = 0;
+
+		for (int i = 0; i < rows.length; i++) {
+			if (model.isRowLoaded(table.convertRowIndexToModel(rows[i])))
+				rows[count++] = rows[i];
+		}
+
+		return Arrays.copyOf(rows, count);
+	}
+
+	private static ColumnSample sample(JTable table, int column, int[] rows) {
+		final TableColumn tableColumn = table.getColumnModel().getColumn(column);
+		final ColumnSample sample = new ColumnSample(tableColumn.getPreferredWidth(), rows.length);
+		final int spacing = table.getIntercellSpacing().width;
+
+		TableCellRenderer headerRenderer = tableColumn.getHeaderRenderer();
+
+		if (headerRenderer == null && table.getTableHeader() != null)
+			headerRenderer = table.getTableHeader().getDefaultRenderer();
+
+		if (headerRenderer != null) {
+			sample.minWidth = headerRenderer.getTableCellRendererComponent(table, tableColumn.getHeaderValue(), false,
+					false, -1, column).getPreferredSize().width;
+		}
+
+		for (int i = 0; i < rows.length; i++) {
+			final TableCellRenderer renderer = table.getCellRenderer(rows[i], column);
+			final Component component = renderer.getTableCellRendererComponent(table,
+					table.getValueAt(rows[i], column), false, false, rows[i], column);
+
+			// the text of labels is measured later; other components right away
+			if (component instanceof JLabel && ((JLabel) component).getIcon() == null) {
+				final JLabel label = (JLabel) component;
+				final Insets insets = label.getInsets();
+
+				if (sample.metrics == null)
+					sample.metrics = label.getFontMetrics(label.getFont());
+
+				sample.texts[sample.textCount++] = label.getText();
+				sample.padding = Math.max(sample.padding, insets.left + insets.right + spacing);
+			} else {
+				sample.minWidth = Math.max(sample.minWidth, component.getPreferredSize().width + spacing);
+			}
+		}
+
+		return sample;
+	}
+
+	private static int[] measure(ColumnSample[] samples) {
+		final int[] widths = new int[samples.length];
+
+		for (int column = 0; column < samples.length; column++) {
+			final ColumnSample sample = samples[column];
+			int width = sample.minWidth;
+
+			for (int i = 0; i < sample.textCount && width < MAX_WIDTH; i++)
+				width = Math.max(width, sample.padding + stringWidth(sample.metrics, sample.texts[i]));
+
+			widths[column] = Math.min(width, MAX_WIDTH);
+		}
+
+		return widths;
+	}
+
+	private static void apply(JTable table, ColumnSample[] samples, int[] widths) {
+		final TableColumnModel columnModel = table.getColumnModel();
+		final int count = Math.min(samples.length, columnModel.getColumnCount());
+
+		for (int column = 0; column < count; column++) {
+			final TableColumn tableColumn = columnModel.getColumn(column);
+
+			if (tableColumn.getPreferredWidth() == samples[column].initialWidth)
+				tableColumn.setPreferredWidth(widths[column]);
+		}
+	}
+
+	private static int stringWidth(FontMetrics metrics, String text) {
+		if (text == null || text.isEmpty())
+			return 0;
+
+		synchronized (WIDTHS) {
+			final Integer cached = WIDTHS.computeIfAbsent(metrics.getFont(), font -> new LruMap()).get(text);
+
+			if (cached != null)
+				return cached;
+		}
+
+		final int width = metrics.stringWidth(text);
+
+		synchronized (WIDTHS) {
+			WIDTHS.get(metrics.getFont()).put(text, width);
+		}
+
+		return width;
+	}
+
+	/**
+	 * The values copied from a column on the event dispatch thread.
+	 */
+	private static final class ColumnSample {
+		final int initialWidth;
+		final String[] texts;
+		int textCount;
+		FontMetrics metrics;
+		int minWidth;
+		int padding;
+
+		ColumnSample(int initialWidth, int capacity) {
+			this.initialWidth = initialWidth;
+			this.texts = new String[capacity];
+		}
+	}
+
+	private static final class LruMap extends LinkedHashMap<String, Integer> {
+		private static final long serialVersionUID = 1L;
+
+		LruMap() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+			return size() > MAX_CACHED_WIDTHS;
+		}
+	}
+}
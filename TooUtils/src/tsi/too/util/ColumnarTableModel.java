@@ -0,0 +1,509 @@
+package tsi.too.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.table.AbstractTableModel;
+
+import tsi.too.ext.Money;
+
+/**
+ * A read-only {@code TableModel} that stores every column as a primitive array,
+ * so a large numeric report takes the size of its raw values instead of a boxed
+ * object per cell, as in a {@code DefaultTableModel}.
+ *
+ * <p>
+ * Columns are added first, each with a type:
+ * </p>
+ *
+ * <ul>
+ * <li>{@code int}, {@code long} and {@code double} columns, shown as
+ * {@code Integer}, {@code Long} and {@code Double};</li>
+ * <li>cents columns, {@code long} amounts shown as {@link Money};</li>
+ * <li>date columns, {@code int} epoch days shown as {@link LocalDate}, with
+ * {@link #NULL_EPOCH_DAY} for no date;</li>
+ * <li>string columns, stored as {@code int} codes into a dictionary of their
+ * distinct values, so repeated names take 4 bytes per cell.</li>
+ * </ul>
+ *
+ * <p>
+ * Rows are then appended in bulk, a primitive array per column. Only the values
+ * {@link #getValueAt(int, int)} returns are boxed; the typed getters such as
+ * {@link #getInt(int, int)} box nothing. This class is not thread-safe and, like
+ * other Swing models, should be changed on the event dispatch thread once shown.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class ColumnarTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The epoch day stored in a date column for a cell with no date.
+	 *
+	 * @since 0.1
+	 */
+	public static final int NULL_EPOCH_DAY = Integer.MIN_VALUE;
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private final List<Column> columns = new ArrayList<>();
+	private int rowCount;
+
+	/**
+	 * Adds a column of {@code int} values.
+	 *
+	 * @param name the column name.
+	 * @return the index of the column.
+	 * @throws IllegalStateException if the model already has rows.
+	 *
+	 * @since 0.1
+	 */
+	public int addIntColumn(String name) {
+		return addColumn(new IntColumn(name, Integer.class));
+	}
+
+	/**
+	 * Adds a column of {@code long} values.
+	 *
+	 * @param name the column name.
+	 * @return the index of the column.
+	 * @throws IllegalStateException if the model already has rows.
+	 *
+	 * @since 0.1
+	 */
+	public int addLongColumn(String name) {
+		return addColumn(new LongColumn(name, Long.class));
+	}
+
+	/**
+	 * Adds a column of {@code double} values.
+	 *
+	 * @param name the column name.
+	 * @return the index of the column.
+	 * @throws IllegalStateException if the model already has rows.
+	 *
+	 * @since 0.1
+	 */
+	public int addDoubleColumn(String name) {
+		return addColumn(new DoubleColumn(name));
+	}
+
+	/**
+	 * Adds a column of amounts in cents, appended as {@code long} values and shown
+	 * as {@link Money}.
+	 *
+	 * @param name the column name.
+	 * @return the index of the column.
+	 * @throws IllegalStateException if the model already has rows.
+	 *
+	 * @since 0.1
+	 */
+	public int addCentsColumn(String name) {
+		return addColumn(new LongColumn(name, Money.class));
+	}
+
+	/**
+	 * Adds a column of dates, appended as {@code int} epoch days and shown as
+	 * {@link LocalDate}.
+	 *
+	 * @param name the column name.
+	 * @return the index of the column.
+	 * @throws IllegalStateException if the model already has rows.
+	 *
+	 * @since 0.1
+	 */
+	public int addDateColumn(String name) {
+		return addColumn(new IntColumn(name, LocalDate.class));
+	}
+
+	/**
+	 * Adds a column of dictionary-encoded strings.
+	 *
+	 * @param name the column name.
+	 * @return the index of the column.
+	 * @throws IllegalStateException if the model already has rows.
+	 *
+	 * @since 0.1
+	 */
+	public int addStringColumn(String name) {
+		return addColumn(new StringColumn(name));
+	}
+
+	/**
+	 * Appends rows, given as one array per column, in column order: an
+	 * {@code int[]} for int and date columns, a {@code long[]} for long and cents
+	 * columns, a {@code double[]} for double columns and a {@code String[]} for
+	 * string columns. All arrays must have the same length.
+	 *
+	 * @param values the values of the new rows, an array per column.
+	 * @throws IllegalArgumentException if there is not an array of the right type
+	 *                                  for every column, or the arrays differ in
+	 *                                  length.
+	 *
+	 * @since 0.1
+	 */
+	public void appendRows(Object... values) {
+		if (values.length != columns.size())
+			throw new IllegalArgumentException(
+					"expected " + columns.size() + " column arrays but got " + values.length);
+
+		int count = -1;
+
+		for (int i = 0; i < values.length; i++) {
+			final int length = columns.get(i).checkValues(values[i]);
+
+			if (count >= 0 && length != count)
+				throw new IllegalArgumentException("all column arrays must have the same length");
+
+			count = length;
+		}
+
+		if (count <= 0)
+			return;
+
+		if (count > MAX_CAPACITY - rowCount)
+			throw new IllegalArgumentException("ColumnarTableModel cannot hold more than " + MAX_CAPACITY + " rows");
+
+		for (int i = 0; i < values.length; i++)
+			columns.get(i).append(values[i], rowCount, count);
+
+		final int firstRow = rowCount;
+		rowCount += count;
+		fireTableRowsInserted(firstRow, rowCount - 1);
+	}
+
+	/**
+	 * Removes every row, keeping the columns and the allocated capacity.
+	 *
+	 * @since 0.1
+	 */
+	public void clear() {
+		final int removed = rowCount;
+
+		if (removed == 0)
+			return;
+
+		rowCount = 0;
+
+		for (Column column : columns)
+			column.clear();
+
+		fireTableRowsDeleted(0, removed - 1);
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columns.size();
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return columns.get(column).name;
+	}
+
+	@Override
+	public Class<?> getColumnClass(int columnIndex) {
+		return columns.get(columnIndex).type;
+	}
+
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		checkRow(rowIndex);
+
+		return columns.get(columnIndex).get(rowIndex);
+	}
+
+	/**
+	 * Gets a value of an int or date column without boxing it.
+	 *
+	 * @param rowIndex    the row of the cell.
+	 * @param columnIndex the column of the cell.
+	 * @return the value, an epoch day for date columns.
+	 * @throws IllegalArgumentException  if the column is not an int or date
+	 *                                   column.
+	 * @throws IndexOutOfBoundsException if the cell is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public int getInt(int rowIndex, int columnIndex) {
+		checkRow(rowIndex);
+
+		return column(columnIndex, IntColumn.class).values[rowIndex];
+	}
+
+	/**
+	 * Gets a value of a long or cents column without boxing it.
+	 *
+	 * @param rowIndex    the row of the cell.
+	 * @param columnIndex the column of the cell.
+	 * @return the value, in cents for cents columns.
+	 * @throws IllegalArgumentException  if the column is not a long or cents
+	 *                                   column.
+	 * @throws IndexOutOfBoundsException if the cell is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public long getLong(int rowIndex, int columnIndex) {
+		checkRow(rowIndex);
+
+		return column(columnIndex, LongColumn.class).values[rowIndex];
+	}
+
+	/**
+	 * Gets a value of a double column without boxing it.
+	 *
+	 * @param rowIndex    the row of the cell.
+	 * @param columnIndex the column of the cell.
+	 * @return the value.
+	 * @throws IllegalArgumentException  if the column is not a double column.
+	 * @throws IndexOutOfBoundsException if the cell is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public double getDouble(int rowIndex, int columnIndex) {
+		checkRow(rowIndex);
+
+		return column(columnIndex, DoubleColumn.class).values[rowIndex];
+	}
+
+	/**
+	 * Gets a value of a string column.
+	 *
+	 * @param rowIndex    the row of the cell.
+	 * @param columnIndex the column of the cell.
+	 * @return the value, may be null.
+	 * @throws IllegalArgumentException  if the column is not a string column.
+	 * @throws IndexOutOfBoundsException if the cell is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public String getString(int rowIndex, int columnIndex) {
+		checkRow(rowIndex);
+
+		return (String) column(columnIndex, StringColumn.class).get(rowIndex);
+	}
+
+	private int addColumn(Column column) {
+		if (rowCount > 0)
+			throw new IllegalStateException("columns cannot be added after rows");
+
+		columns.add(column);
+		fireTableStructureChanged();
+
+		return columns.size() - 1;
+	}
+
+	private <C extends Column> C column(int columnIndex, Class<C> kind) {
+		final Column column = columns.get(columnIndex);
+
+		if (!kind.isInstance(column))
+			throw new IllegalArgumentException("column " + columnIndex + " holds " + column.type.getSimpleName());
+
+		return kind.cast(column);
+	}
+
+	private void checkRow(int rowIndex) {
+		if (rowIndex < 0 || rowIndex >= rowCount)
+			throw new IndexOutOfBoundsException("Row: " + rowIndex + ", Rows: " + rowCount);
+	}
+
+	private static int newCapacity(int current, int minCapacity) {
+		final int grown = current > MAX_CAPACITY / 3 * 2 ? MAX_CAPACITY : current + (current >> 1);
+
+		return Math.max(Math.max(grown, minCapacity), DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * A column of the model, holding its values in a primitive array.
+	 */
+	private abstract static class Column {
+		final String name;
+		final Class<?> type;
+
+		Column(String name, Class<?> type) {
+			this.name = name;
+			this.type = type;
+		}
+
+		/**
+		 * Checks the type of an appended array and returns its length.
+		 */
+		abstract int checkValues(Object values);
+
+		abstract void append(Object values, int size, int count);
+
+		abstract Object get(int row);
+
+		void clear() {
+		}
+
+		IllegalArgumentException wrongValues(Object values, String expected) {
+			return new IllegalArgumentException("column " + name + " expects " + expected + " but got "
+					+ (values == null ? "null" : values.getClass().getSimpleName()));
+		}
+	}
+
+	private static final class IntColumn extends Column {
+		int[] values = new int[0];
+
+		IntColumn(String name, Class<?> type) {
+			super(name, type);
+		}
+
+		@Override
+		int checkValues(Object values) {
+			if (!(values instanceof int[]))
+				throw wrongValues(values, "an int[]");
+
+			return ((int[]) values).length;
+		}
+
+		@Override
+		void append(Object appended, int size, int count) {
+			if (size + count > values.length)
+				values = Arrays.copyOf(values, newCapacity(values.length, size + count));
+
+			System.arraycopy(appended, 0, values, size, count);
+		}
+
+		@Override
+		Object get(int row) {
+			final int value = values[row];
+
+			if (type == LocalDate.class)
+				return value == NULL_EPOCH_DAY ? null : LocalDate.ofEpochDay(value);
+
+			return value;
+		}
+	}
+
+	private static final class LongColumn extends Column {
+		long[] values = new long[0];
+
+		LongColumn(String name, Class<?> type) {
+			super(name, type);
+		}
+
+		@Override
+		int checkValues(Object values) {
+			if (!(values instanceof long[]))
+				throw wrongValues(values, "a long[]");
+
+			return ((long[]) values).length;
+		}
+
+		@Override
+		void append(Object appended, int size, int count) {
+			if (size + count > values.length)
+				values = Arrays.copyOf(values, newCapacity(values.length, size + count));
+
+			System.arraycopy(appended, 0, values, size, count);
+		}
+
+		@Override
+		Object get(int row) {
+			return type == Money.class ? Money.ofCents(values[row]) : (Object) values[row];
+		}
+	}
+
+	private static final class DoubleColumn extends Column {
+		double[] values = new double[0];
+
+		DoubleColumn(String name) {
+			super(name, Double.class);
+		}
+
+		@Override
+		int checkValues(Object values) {
+			if (!(values instanceof double[]))
+				throw wrongValues(values, "a double[]");
+
+			return ((double[]) values).length;
+		}
+
+		@Override
+		void append(Object appended, int size, int count) {
+			if (size + count > values.length)
+				values = Arrays.copyOf(values, newCapacity(values.length, size + count));
+
+			System.arraycopy(appended, 0, values, size, count);
+		}
+
+		@Override
+		Object get(int row) {
+			return values[row];
+		}
+	}
+
+	private static final class StringColumn extends Column {
+		private static final int NULL_CODE = -1;
+
+		final Map<String, Integer> codes = new HashMap<>();
+		final List<String> dictionary = new ArrayList<>();
+		int[] values = new int[0];
+
+		StringColumn(String name) {
+			super(name, String.class);
+		}
+
+		@Override
+		int checkValues(Object values) {
+			if (!(values instanceof String[]))
+				throw wrongValues(values, "a String[]");
+
+			return ((String[]) values).length;
+		}
+
+		@Override
+		void append(Object appended, int size, int count) {
+			final String[] strings = (String[]) appended;
+
+			if (size + count > values.length)
+				values = Arrays.copyOf(values, newCapacity(values.length, size + count));
+
+			for (int i = 0; i < count; i++)
+				values[size + i] = encode(strings[i]);
+		}
+
+		@Override
+		Object get(int row) {
+			final int code = values[row];
+
+			return code == NULL_CODE ? null : dictionary.get(code);
+		}
+
+		@Override
+		void clear() {
+			codes.clear();
+			dictionary.clear();
+		}
+
+		private int encode(String value) {
+			if (value == null)
+				return NULL_CODE;
+
+			final Integer code = codes.get(value);
+
+			if (code != null)
+				return code;
+
+			dictionary.add(value);
+			codes.put(value, dictionary.size() - 1);
+
+			return dictionary.size() - 1;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package tsi.too.util;
+
+import javax.swing.SwingConstants;
+
+import tsi.too.ext.NumberExt;
+
+/**
+ * A right-aligned, caching renderer for currency columns, formatting
+ * {@link Number} values as {@link NumberExt#toBrazilianCurrency(Number)} does.
+ * Other values are shown as their {@code toString()}.
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @see CachingCellRenderer
+ */
+public class CurrencyCellRenderer extends CachingCellRenderer {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates a currency renderer.
+	 *
+	 * @since 0.1
+	 */
+	public CurrencyCellRenderer() {
+		super(SwingConstants.RIGHT);
+	}
+
+	@Override
+	protected String format(Object value) {
+		return value instanceof Number ? NumberExt.toBrazilianCurrency((Number) value) : value.toString();
+	}
+}
@@ -0,0 +1,293 @@
+package tsi.too.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.Locale;
+
+import javax.swing.JFormattedTextField;
+import javax.swing.JFormattedTextField.AbstractFormatter;
+import javax.swing.JFormattedTextField.AbstractFormatterFactory;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DocumentFilter;
+import javax.swing.text.DocumentFilter.FilterBypass;
+
+/**
+ * A formatter factory for currency fields that keeps the amount as a whole
+ * number of cents and edits it one keystroke at a time.
+ *
+ * <p>
+ * Typing a digit shifts it in as the last cent, so typing {@code 1}, {@code 2}
+ * and {@code 5} shows {@code 0,01}, {@code 0,12} and {@code 1,25}; deleting
+ * drops the last digits and {@code '-'} flips the sign. The text is rebuilt
+ * from the cents, so no keystroke parses it. Edits leading outside
+ * {@code [minValue, maxValue]} are rejected, as an {@code InternationalFormatter}
+ * that does not allow invalid values does. The field value is a
+ * {@code Double}.
+ * </p>
+ *
+ * <p>
+ * The separators are read once, from the default format locale, and shared by
+ * every formatter the factory creates.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class CurrencyFormatterFactory extends AbstractFormatterFactory {
+	private static final int FRACTION_DIGITS = 2;
+	private static final long MAX_CENTS = Long.MAX_VALUE / 10 - 9;
+
+	private final Double minValue;
+	private final Double maxValue;
+	private final char decimalSeparator;
+	private final char groupingSeparator;
+	private final int groupingSize;
+
+	/**
+	 * Creates a factory for the default format locale.
+	 *
+	 * @param minValue the minimum acceptable value, or null for no minimum.
+	 * @param maxValue the maximum acceptable value, or null for no maximum.
+	 *
+	 * @since 0.1
+	 */
+	public CurrencyFormatterFactory(Double minValue, Double maxValue) {
+		this(minValue, maxValue, Locale.getDefault(Locale.Category.FORMAT));
+	}
+
+	/**
+	 * Creates a factory for the given locale.
+	 *
+	 * @param minValue the minimum acceptable value, or null for no minimum.
+	 * @param maxValue the maximum acceptable value, or null for no maximum.
+	 * @param locale   the locale whose separators are used.
+	 *
+	 * @since 0.1
+	 */
+	public CurrencyFormatterFactory(Double minValue, Double maxValue, Locale locale) {
+		final NumberFormat format = LocaleUtils.getNumberFormat(locale, LocaleUtils.FormatStyle.NUMBER);
+		final DecimalFormatSymbols symbols = LocaleUtils.getDecimalFormatSymbols(locale);
+
+		this.minValue = minValue;
+		this.maxValue = maxValue;
+		this.decimalSeparator = symbols.getDecimalSeparator();
+		this.groupingSeparator = symbols.getGroupingSeparator();
+		this.groupingSize = format instanceof DecimalFormat && format.isGroupingUsed()
+				? ((DecimalFormat) format).getGroupingSize()
+				: 0;
+	}
+
+	@Override
+	public AbstractFormatter getFormatter(JFormattedTextField tf) {
+		return new CentsFormatter();
+	}
+
+	private boolean isInRange(long cents) {
+		final double value = cents / 100.0;
+
+		return (minValue == null || value >= minValue) && (maxValue == null || value <= maxValue);
+	}
+
+	private String toText(long magnitude, boolean negative) {
+		final StringBuilder text = new StringBuilder(24);
+		final String whole = Long.toString(magnitude / 100);
+
+		if (negative)
+			text.append('-');
+
+		for (int i = 0; i < whole.length(); i++) {
+			if (i > 0 && groupingSize > 0 && (whole.length() - i) % groupingSize == 0)
+				text.append(groupingSeparator);
+
+			text.append(whole.charAt(i));
+		}
+
+		final int fraction = (int) (magnitude % 100);
+
+		return text.append(decimalSeparator).append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10))
+				.toString();
+	}
+
+	/**
+	 * Reads the cents of a text: its digits, negated if it holds a {@code '-'}.
+	 */
+	private static long toCents(String text) throws ParseException {
+		long cents = 0;
+		boolean negative = false;
+
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+
+			if (c >= '0' && c <= '9') {
+				if (cents > MAX_CENTS)
+					throw new ParseException("Amount out of range: " + text, i);
+
+				cents = cents * 10 + (c - '0');
+			} else if (c == '-') {
+				negative = true;
+			}
+		}
+
+		return negative ? -cents : cents;
+	}
+
+	/**
+	 * The formatter of one field, holding the cents its text shows as a magnitude
+	 * and a sign, so {@code "-0,00"} can be shown while a negative amount is
+	 * typed.
+	 */
+	private class CentsFormatter extends AbstractFormatter {
+		private static final long serialVersionUID = 1L;
+
+		private final DocumentFilter filter = new CentsFilter();
+		private long magnitude;
+		private boolean negative;
+
+		@Override
+		public Object stringToValue(String text) throws ParseException {
+			if (text == null || text.isEmpty())
+				return null;
+
+			final long parsed = toCents(text);
+
+			if (!isInRange(parsed))
+				throw new ParseException("Value out of range: " + text, 0);
+
+			return parsed / 100.0;
+		}
+
+		@Override
+		public String valueToString(Object value) throws ParseException {
+			if (value == null)
+				return "";
+
+			if (!(value instanceof Number))
+				throw new ParseException("Not a number: " + value, 0);
+
+			if ((value instanceof Double || value instanceof Float) && !Double.isFinite(((Number) value).doubleValue()))
+				throw new ParseException("Not a finite amount: " + value, 0);
+
+			try {
+				final BigDecimal amount = value instanceof BigDecimal ? (BigDecimal) value
+						: new BigDecimal(value.toString());
+				final long cents = amount.setScale(FRACTION_DIGITS, RoundingMode.HALF_UP).unscaledValue()
+						.longValueExact();
+
+				return toText(Math.abs(cents), cents < 0);
+			} catch (ArithmeticException ex) {
+				throw new ParseException("Amount out of range: " + value, 0);
+			} catch (NumberFormatException ex) {
+				throw new ParseException("Not a decimal amount: " + value, 0);
+			}
+		}
+
+		/**
+		 * Takes the cents from the text the field shows once installed, which is
+		 * written before the filter is, so edits start from the current value.
+		 */
+		@Override
+		public void install(JFormattedTextField ftf) {
+			super.install(ftf);
+
+			magnitude = 0;
+			negative = false;
+
+			if (ftf == null)
+				return;
+
+			try {
+				final long cents = toCents(ftf.getText());
+
+				magnitude = Math.abs(cents);
+				negative = ftf.getText().indexOf('-') >= 0;
+			} catch (ParseException ex) {
+				// too many digits for an amount: edits start from zero
+			}
+		}
+
+		@Override
+		protected DocumentFilter getDocumentFilter() {
+			return filter;
+		}
+
+		/**
+		 * Applies an edit to the cents and, if the result is in range, rewrites the
+		 * whole text from them.
+		 */
+		private void edit(FilterBypass fb, int offset, int length, String inserted) throws BadLocationException {
+			final int documentLength = fb.getDocument().getLength();
+			long editedMagnitude = magnitude;
+			boolean editedNegative = negative;
+
+			if (length > 0 && length >= documentLength) {
+				editedMagnitude = 0;
+				editedNegative = false;
+			} else if (length > 0) {
+				// deleting anywhere drops as many digits from the end
+				final String removed = fb.getDocument().getText(offset, length);
+
+				for (int i = 0; i < removed.length(); i++) {
+					if (removed.charAt(i) >= '0' && removed.charAt(i) <= '9')
+						editedMagnitude /= 10;
+					else if (removed.charAt(i) == '-')
+						editedNegative = false;
+				}
+			}
+
+			if (inserted != null) {
+				for (int i = 0; i < inserted.length(); i++) {
+					final char c = inserted.charAt(i);
+
+					if (c >= '0' && c <= '9') {
+						if (editedMagnitude > MAX_CENTS) {
+							invalidEdit();
+							return;
+						}
+
+						editedMagnitude = editedMagnitude * 10 + (c - '0');
+					} else if (c == '-') {
+						editedNegative = !editedNegative;
+					}
+				}
+			}
+
+			if (!isInRange(editedNegative ? -editedMagnitude : editedMagnitude)) {
+				invalidEdit();
+				return;
+			}
+
+			final String text = toText(editedMagnitude, editedNegative);
+			magnitude = editedMagnitude;
+			negative = editedNegative;
+			fb.replace(0, documentLength, text, null);
+
+			if (getFormattedTextField() != null)
+				getFormattedTextField().setCaretPosition(text.length());
+		}
+
+		private class CentsFilter extends DocumentFilter {
+			@Override
+			public void insertString(FilterBypass fb, int offset, String string, AttributeSet attr)
+					throws BadLocationException {
+				edit(fb, offset, 0, string);
+			}
+
+			@Override
+			public void remove(FilterBypass fb, int offset, int length) throws BadLocationException {
+				edit(fb, offset, length, null);
+			}
+
+			@Override
+			public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs)
+					throws BadLocationException {
+				edit(fb, offset, length, text);
+			}
+		}
+	}
+}
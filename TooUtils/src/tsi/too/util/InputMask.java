@@ -0,0 +1,470 @@
+package tsi.too.util;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.swing.text.MaskFormatter;
+
+/**
+ * A compiled input mask, using the {@link MaskFormatter} mask syntax, that
+ * validates and normalizes text without going through Swing.
+ *
+ * <p>
+ * The mask is parsed once into a table of positions; matching a value is then a
+ * single pass over its characters, with no exceptions and no allocation. The
+ * mask characters are those of {@code MaskFormatter}:
+ * </p>
+ *
+ * <ul>
+ * <li>{@code #} any digit;</li>
+ * <li>{@code '} escapes the next character, which is then a literal; a
+ * trailing one is ignored;</li>
+ * <li>{@code U} any letter, converted to upper case;</li>
+ * <li>{@code L} any letter, converted to lower case;</li>
+ * <li>{@code A} any letter or digit;</li>
+ * <li>{@code ?} any letter;</li>
+ * <li>{@code *} anything;</li>
+ * <li>{@code H} any hexadecimal digit, converted to upper case;</li>
+ * <li>any other character is a literal.</li>
+ * </ul>
+ *
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public final class InputMask {
+
+	/**
+	 * The mask of a date written as {@code dd/MM/yyyy}.
+	 *
+	 * @since 0.1
+	 */
+	public static final InputMask BRAZILIAN_DATE = new InputMask("##/##/####");
+
+	/**
+	 * The mask of a time written as {@code HH:mm:ss}.
+	 *
+	 * @since 0.1
+	 */
+	public static final InputMask TIME = new InputMask("##:##:##");
+
+	/**
+	 * The mask of a CPF, {@code ###.###.###-##}.
+	 *
+	 * @since 0.1
+	 */
+	public static final InputMask CPF = new InputMask("###.###.###-##");
+
+	/**
+	 * The mask of a CNPJ, {@code ##.###.###/####-##}.
+	 *
+	 * @since 0.1
+	 */
+	public static final InputMask CNPJ = new InputMask("##.###.###/####-##");
+
+	/**
+	 * The mask of a CEP, {@code #####-###}.
+	 *
+	 * @since 0.1
+	 */
+	public static final InputMask CEP = new InputMask("#####-###");
+
+	/**
+	 * The placeholder {@link #createFormatter()} shows for characters not typed
+	 * yet.
+	 *
+	 * @since 0.1
+	 */
+	public static final char DEFAULT_PLACEHOLDER = '_';
+
+	private static final int MAX_CACHED_MASKS = 256;
+	private static final ConcurrentMap<String, InputMask> CACHE = new ConcurrentHashMap<>();
+
+	private static final byte LITERAL = 0;
+	private static final byte DIGIT = 1;
+	private static final byte UPPERCASE = 2;
+	private static final byte LOWERCASE = 3;
+	private static final byte ALPHANUMERIC = 4;
+	private static final byte LETTER = 5;
+	private static final byte ANYTHING = 6;
+	private static final byte HEX = 7;
+
+	private final String mask;
+	private final byte[] kinds;
+	private final char[] literals;
+	private final int placeholderCount;
+
+	private InputMask(String mask) {
+		final int length = mask.length();
+		final byte[] kinds = new byte[length];
+		final char[] literals = new char[length];
+		int size = 0;
+		int placeholders = 0;
+
+		for (int i = 0; i < length; i++) {
+			char c = mask.charAt(i);
+			byte kind = kindOf(c);
+
+			if (c == '\'') {
+				// a trailing escape is ignored, as MaskFormatter does
+				if (++i == length)
+					break;
+
+				c = mask.charAt(i);
+				kind = LITERAL;
+			}
+
+			if (kind != LITERAL)
+				placeholders++;
+
+			kinds[size] = kind;
+			literals[size++] = kind == LITERAL ? c : 0;
+		}
+
+		this.mask = mask;
+		this.kinds = Arrays.copyOf(kinds, size);
+		this.literals = Arrays.copyOf(literals, size);
+		this.placeholderCount = placeholders;
+	}
+
+	/**
+	 * Compiles a mask. Compiled masks are cached, so compiling the same mask
+	 * again returns the same instance.
+	 *
+	 * @param mask the mask, in the {@link MaskFormatter} syntax.
+	 * @return the compiled mask.
+	 * @throws IllegalArgumentException if {@code mask} is null or empty.
+	 *
+	 * @since 0.1
+	 */
+	public static InputMask compile(String mask) {
+		if (mask == null || mask.isEmpty())
+			throw new IllegalArgumentException("mask cannot be null or empty");
+
+		final InputMask cached = CACHE.get(mask);
+
+		if (cached != null)
+			return cached;
+
+		final InputMask compiled = new InputMask(mask);
+
+		if (CACHE.size() >= MAX_CACHED_MASKS)
+			CACHE.clear();
+
+		final InputMask previous = CACHE.putIfAbsent(mask, compiled);
+
+		return previous != null ? previous : compiled;
+	}
+
+	/**
+	 * Gets the mask this instance was compiled from.
+	 *
+	 * @return the mask.
+	 *
+	 * @since 0.1
+	 */
+	public String getMask() {
+		return mask;
+	}
+
+	/**
+	 * Gets the length of a value matching this mask.
+	 *
+	 * @return the number of characters, literals included.
+	 *
+	 * @since 0.1
+	 */
+	public int length() {
+		return kinds.length;
+	}
+
+	/**
+	 * Checks whether a text is a complete value of this mask, with its literals,
+	 * as a {@link MaskFormatter} would accept it.
+	 *
+	 * @param text the text to check.
+	 * @return true if it matches, false otherwise or if {@code text} is null.
+	 *
+	 * @since 0.1
+	 */
+	public boolean matches(CharSequence text) {
+		return text != null && matches(text, 0, text.length());
+	}
+
+	/**
+	 * Checks whether a range of a text is a complete value of this mask, with its
+	 * literals.
+	 *
+	 * @param text       the text holding the value.
+	 * @param beginIndex the index of the first character, inclusive.
+	 * @param endIndex   the index of the last character, exclusive.
+	 * @return true if the range matches.
+	 * @throws IndexOutOfBoundsException if the range is not within {@code text}.
+	 *
+	 * @since 0.1
+	 */
+	public boolean matches(CharSequence text, int beginIndex, int endIndex) {
+		checkRange(beginIndex, endIndex, text.length());
+
+		if (endIndex - beginIndex != kinds.length)
+			return false;
+
+		for (int i = 0; i < kinds.length; i++) {
+			if (!accepts(i, text.charAt(beginIndex + i)))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks whether a range of ASCII or Latin-1 bytes, such as a field of an
+	 * imported file, is a complete value of this mask, with its literals.
+	 *
+	 * @param bytes      the bytes holding the value.
+	 * @param beginIndex the index of the first byte, inclusive.
+	 * @param endIndex   the index of the last byte, exclusive.
+	 * @return true if the range matches.
+	 * @throws IndexOutOfBoundsException if the range is not within {@code bytes}.
+	 *
+	 * @since 0.1
+	 */
+	public boolean matches(byte[] bytes, int beginIndex, int endIndex) {
+		checkRange(beginIndex, endIndex, bytes.length);
+
+		if (endIndex - beginIndex != kinds.length)
+			return false;
+
+		for (int i = 0; i < kinds.length; i++) {
+			if (!accepts(i, (char) (bytes[beginIndex + i] & 0xFF)))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks many texts at once.
+	 *
+	 * @param texts the texts to check; null elements do not match.
+	 * @return a {@code BitSet} with the indices of the texts that match.
+	 *
+	 * @since 0.1
+	 */
+	public BitSet filterMatching(CharSequence[] texts) {
+		final BitSet matching = new BitSet(texts.length);
+
+		for (int i = 0; i < texts.length; i++) {
+			if (matches(texts[i]))
+				matching.set(i);
+		}
+
+		return matching;
+	}
+
+	/**
+	 * Normalizes a text to a value of this mask. The text may hold the value with
+	 * or without its literals, and letters are converted as the mask says, so
+	 * {@link #CPF} normalizes both {@code "12345678901"} and
+	 * {@code "123.456.789-01"} to {@code "123.456.789-01"}.
+	 *
+	 * @param text the text to normalize.
+	 * @return the normalized value, or null if the text is null or cannot be
+	 *         normalized.
+	 *
+	 * @since 0.1
+	 */
+	public String normalize(CharSequence text) {
+		if (text == null)
+			return null;
+
+		final StringBuilder builder = new StringBuilder(kinds.length);
+
+		return normalize(text, builder) ? builder.toString() : null;
+	}
+
+	/**
+	 * Normalizes a text to a value of this mask, see
+	 * {@link #normalize(CharSequence)}, appending it to a {@code StringBuilder}.
+	 *
+	 * @param text   the text to normalize.
+	 * @param target the builder the value is appended to. Nothing is appended if
+	 *               the text cannot be normalized.
+	 * @return true if the text was normalized.
+	 *
+	 * @since 0.1
+	 */
+	public boolean normalize(CharSequence text, StringBuilder target) {
+		final int start = target.length();
+		final int length = text.length();
+		// only a text of the full or the unmasked length can be normalized
+		final boolean withLiterals = length == kinds.length;
+
+		if (!withLiterals && length != placeholderCount)
+			return false;
+
+		int position = 0;
+
+		for (int i = 0; i < kinds.length; i++) {
+			if (kinds[i] == LITERAL) {
+				if (withLiterals && text.charAt(position++) != literals[i]) {
+					target.setLength(start);
+					return false;
+				}
+
+				target.append(literals[i]);
+				continue;
+			}
+
+			final char c = text.charAt(position++);
+
+			if (!accepts(i, c)) {
+				target.setLength(start);
+				return false;
+			}
+
+			target.append(convert(i, c));
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the characters of a value that are not literals, as a
+	 * {@link MaskFormatter} that does not keep literal characters would.
+	 *
+	 * @param text a complete value of this mask, with its literals.
+	 * @return the characters typed in the placeholders, converted as the mask
+	 *         says, or null if {@code text} does not match this mask.
+	 *
+	 * @since 0.1
+	 */
+	public String unmask(CharSequence text) {
+		if (!matches(text))
+			return null;
+
+		final StringBuilder builder = new StringBuilder(placeholderCount);
+
+		for (int i = 0; i < kinds.length; i++) {
+			if (kinds[i] != LITERAL)
+				builder.append(convert(i, text.charAt(i)));
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Creates a {@link MaskFormatter} for this mask using
+	 * {@link #DEFAULT_PLACEHOLDER}. Formatters are not shared, so every field needs
+	 * its own.
+	 *
+	 * @return a new {@code MaskFormatter}.
+	 *
+	 * @since 0.1
+	 */
+	public MaskFormatter createFormatter() {
+		return createFormatter(DEFAULT_PLACEHOLDER);
+	}
+
+	/**
+	 * Creates a {@link MaskFormatter} for this mask.
+	 *
+	 * @param placeholder the character shown for characters not typed yet.
+	 * @return a new {@code MaskFormatter}.
+	 *
+	 * @since 0.1
+	 */
+	public MaskFormatter createFormatter(char placeholder) {
+		try {
+			final MaskFormatter formatter = new MaskFormatter(mask);
+			formatter.setPlaceholderCharacter(placeholder);
+
+			return formatter;
+		} catch (ParseException ex) {
+			// the mask was already validated when compiled
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof InputMask && mask.equals(((InputMask) obj).mask);
+	}
+
+	@Override
+	public int hashCode() {
+		return mask.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return mask;
+	}
+
+	private boolean accepts(int position, char c) {
+		switch (kinds[position]) {
+			case LITERAL:
+				return c == literals[position];
+			case DIGIT:
+				return c >= '0' && c <= '9' || c > 0x7F && Character.isDigit(c);
+			case UPPERCASE:
+			case LOWERCASE:
+			case LETTER:
+				return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c > 0x7F && Character.isLetter(c);
+			case ALPHANUMERIC:
+				return c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z'
+						|| c > 0x7F && Character.isLetterOrDigit(c);
+			case HEX:
+				return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+			default:
+				return true;
+		}
+	}
+
+	private char convert(int position, char c) {
+		switch (kinds[position]) {
+			case UPPERCASE:
+				return Character.toUpperCase(c);
+			case LOWERCASE:
+				return Character.toLowerCase(c);
+			case HEX:
+				return Character.toUpperCase(c);
+			default:
+				return c;
+		}
+	}
+
+	private static byte kindOf(char c) {
+		switch (c) {
+			case '#':
+				return DIGIT;
+			case 'U':
+				return UPPERCASE;
+			case 'L':
+				return LOWERCASE;
+			case 'A':
+				return ALPHANUMERIC;
+			case '?':
+				return LETTER;
+			case '*':
+				return ANYTHING;
+			case 'H':
+				return HEX;
+			default:
+				return LITERAL;
+		}
+	}
+
+	private static void checkRange(int beginIndex, int endIndex, int length) {
+		if (beginIndex < 0 || beginIndex > endIndex || endIndex > length)
+			throw new IndexOutOfBoundsException(
+					"begin " + beginIndex + ", end " + endIndex + ", length " + length);
+	}
+}
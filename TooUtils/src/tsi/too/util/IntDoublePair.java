@@ -0,0 +1,72 @@
+package tsi.too.util;
+
+/**
+ * An immutable pair of an {@code int} and a {@code double} with value
+ * semantics. The {@code double} elements are compared as
+ * {@link Double#equals(Object)} does.
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @see Pair
+ */
+public final class IntDoublePair {
+	private final int first;
+	private final double second;
+
+	/**
+	 * Constructs a new {@code IntDoublePair} with the given values.
+	 *
+	 * @param first  the first element.
+	 * @param second the second element.
+	 *
+	 * @since 0.1
+	 */
+	public IntDoublePair(int first, double second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * @return the first element.
+	 *
+	 * @since 0.1
+	 */
+	public int getFirst() {
+		return first;
+	}
+
+	/**
+	 * @return the second element.
+	 *
+	 * @since 0.1
+	 */
+	public double getSecond() {
+		return second;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+
+		if (!(obj instanceof IntDoublePair))
+			return false;
+
+		final IntDoublePair other = (IntDoublePair) obj;
+
+		return first == other.first
+				&& Double.doubleToLongBits(second) == Double.doubleToLongBits(other.second);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * first + Double.hashCode(second);
+	}
+
+	@Override
+	public String toString() {
+		return first + ", " + second;
+	}
+}
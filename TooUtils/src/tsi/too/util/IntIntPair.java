@@ -0,0 +1,69 @@
+package tsi.too.util;
+
+/**
+ * An immutable pair of {@code int} values with value semantics.
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @see Pair
+ */
+public final class IntIntPair {
+	private final int first;
+	private final int second;
+
+	/**
+	 * Constructs a new {@code IntIntPair} with the given values.
+	 *
+	 * @param first  the first element.
+	 * @param second the second element.
+	 *
+	 * @since 0.1
+	 */
+	public IntIntPair(int first, int second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * @return the first element.
+	 *
+	 * @since 0.1
+	 */
+	public int getFirst() {
+		return first;
+	}
+
+	/**
+	 * @return the second element.
+	 *
+	 * @since 0.1
+	 */
+	public int getSecond() {
+		return second;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+
+		if (!(obj instanceof IntIntPair))
+			return false;
+
+		final IntIntPair other = (IntIntPair) obj;
+
+		return first == other.first && second == other.second;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * first + second;
+	}
+
+	@Override
+	public String toString() {
+		return first + ", " + second;
+	}
+}
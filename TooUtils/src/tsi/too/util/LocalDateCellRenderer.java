@@ -0,0 +1,47 @@
+package tsi.too.util;
+
+import java.time.LocalDate;
+
+import javax.swing.SwingConstants;
+
+import tsi.too.ext.BrazilianDateCodec;
+
+/**
+ * A caching renderer for {@link LocalDate} columns, showing dates as
+ * {@code dd/MM/yyyy}. Other values are shown as their {@code toString()}.
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @see CachingCellRenderer
+ */
+public class LocalDateCellRenderer extends CachingCellRenderer {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates a centered date renderer.
+	 *
+	 * @since 0.1
+	 */
+	public LocalDateCellRenderer() {
+		this(SwingConstants.CENTER);
+	}
+
+	/**
+	 * Creates a date renderer with the given horizontal alignment.
+	 *
+	 * @param alignment one of the {@link SwingConstants} alignments.
+	 *
+	 * @since 0.1
+	 */
+	public LocalDateCellRenderer(int alignment) {
+		super(alignment);
+	}
+
+	@Override
+	protected String format(Object value) {
+		return value instanceof LocalDate ? BrazilianDateCodec.getDefault().format((LocalDate) value)
+				: value.toString();
+	}
+}
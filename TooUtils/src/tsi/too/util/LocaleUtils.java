@@ -1,24 +1,199 @@
 package tsi.too.util;
 
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Convenience class for common Locale operations.
- * 
+ *
+ * <p>
+ * Also keeps a registry of {@code Locale} constants and of number formats per
+ * locale and {@link FormatStyle}. Creating a {@link NumberFormat} looks up
+ * locale resources and is costly, and the instances are not thread-safe, so
+ * each format is created once as a prototype and every thread gets its own
+ * clone of it.
+ * </p>
+ *
  * @author Lucas Cristovam
- * 
- * @version 0.1
+ *
+ * @version 0.2
  */
 public class LocaleUtils {
-	
+
+	/**
+	 * The Brazilian {@code Locale}, {@code pt-BR}.
+	 *
+	 * @since 0.2
+	 */
+	public static final Locale BRAZILIAN_LOCALE = new Locale("pt", "BR");
+
+	private static final ConcurrentHashMap<Locale, Locale> LOCALES = new ConcurrentHashMap<>();
+
+	private static final ConcurrentHashMap<Locale, AtomicReferenceArray<NumberFormat>> PROTOTYPES =
+			new ConcurrentHashMap<>();
+
+	private static final ConcurrentHashMap<Locale, DecimalFormatSymbols> SYMBOLS = new ConcurrentHashMap<>();
+
+	private static final ThreadLocal<Map<Locale, NumberFormat[]>> THREAD_FORMATS = ThreadLocal
+			.withInitial(HashMap::new);
+
+	private static final ThreadLocal<Map<Locale, DecimalFormatSymbols>> THREAD_SYMBOLS = ThreadLocal
+			.withInitial(HashMap::new);
+
+	static {
+		LOCALES.put(BRAZILIAN_LOCALE, BRAZILIAN_LOCALE);
+	}
+
 	/**
 	 * Get a {@code Locale} as a Brazilian Locale.
-	 * 
-	 * @return The resulting {@code Locale}.
-	 * 
+	 *
+	 * @return The resulting {@code Locale}, always the same instance.
+	 *
 	 * @since 0.1
 	 */
 	public static Locale getBrazilianLocale() {
-        return new Locale("pt", "BR");
-    }
-}
\ No newline at end of file
+		return BRAZILIAN_LOCALE;
+	}
+
+	/**
+	 * Gets the shared instance of a {@code Locale}.
+	 *
+	 * @param language the ISO 639 language code.
+	 * @param country  the ISO 3166 country code.
+	 * @return the {@code Locale}, the same instance for equal arguments.
+	 *
+	 * @since 0.2
+	 */
+	public static Locale getLocale(String language, String country) {
+		return intern(new Locale(language, country));
+	}
+
+	/**
+	 * Gets the shared instance of a {@code Locale} equal to the given one.
+	 *
+	 * @param locale the {@code Locale} to intern.
+	 * @return the first registered {@code Locale} equal to the given one.
+	 *
+	 * @since 0.2
+	 */
+	public static Locale intern(Locale locale) {
+		final Locale interned = LOCALES.putIfAbsent(locale, locale);
+
+		return interned != null ? interned : locale;
+	}
+
+	/**
+	 * Gets a number format owned by the calling thread.
+	 *
+	 * <p>
+	 * The instance is cached per thread, so it must neither be reconfigured nor
+	 * handed to another thread. Use {@link #newNumberFormat(Locale, FormatStyle)}
+	 * for a format to keep or change.
+	 * </p>
+	 *
+	 * @param locale the locale of the format.
+	 * @param style  the kind of format.
+	 * @return the format of the calling thread.
+	 *
+	 * @since 0.2
+	 */
+	public static NumberFormat getNumberFormat(Locale locale, FormatStyle style) {
+		final NumberFormat[] formats = THREAD_FORMATS.get().computeIfAbsent(locale,
+				l -> new NumberFormat[FormatStyle.values().length]);
+		NumberFormat format = formats[style.ordinal()];
+
+		if (format == null) {
+			format = newNumberFormat(locale, style);
+			formats[style.ordinal()] = format;
+		}
+
+		return format;
+	}
+
+	/**
+	 * Creates a number format owned by the caller, cloned from the cached
+	 * prototype, which is cheaper than the {@link NumberFormat} factories.
+	 *
+	 * @param locale the locale of the format.
+	 * @param style  the kind of format.
+	 * @return a new format.
+	 *
+	 * @since 0.2
+	 */
+	public static NumberFormat newNumberFormat(Locale locale, FormatStyle style) {
+		final AtomicReferenceArray<NumberFormat> prototypes = PROTOTYPES.computeIfAbsent(locale,
+				l -> new AtomicReferenceArray<>(FormatStyle.values().length));
+		NumberFormat prototype = prototypes.get(style.ordinal());
+
+		if (prototype == null) {
+			// racing threads create equal prototypes, so the loser just adopts the winner's
+			prototypes.compareAndSet(style.ordinal(), null, style.create(locale));
+			prototype = prototypes.get(style.ordinal());
+		}
+
+		// prototypes are never used for formatting, so cloning only reads them
+		return (NumberFormat) prototype.clone();
+	}
+
+	/**
+	 * Gets the decimal format symbols of a locale, owned by the calling thread.
+	 * The instance is cached per thread, so it must neither be changed nor handed
+	 * to another thread.
+	 *
+	 * @param locale the locale of the symbols.
+	 * @return the symbols of the calling thread.
+	 *
+	 * @since 0.2
+	 */
+	public static DecimalFormatSymbols getDecimalFormatSymbols(Locale locale) {
+		return THREAD_SYMBOLS.get().computeIfAbsent(locale,
+				l -> (DecimalFormatSymbols) SYMBOLS.computeIfAbsent(l, DecimalFormatSymbols::getInstance).clone());
+	}
+
+	/**
+	 * The kinds of number format kept by the registry.
+	 *
+	 * @author Lucas Cristovam
+	 *
+	 * @since 0.2
+	 */
+	public enum FormatStyle {
+		/**
+		 * {@link NumberFormat#getNumberInstance(Locale)}.
+		 */
+		NUMBER,
+
+		/**
+		 * {@link NumberFormat#getCurrencyInstance(Locale)}.
+		 */
+		CURRENCY,
+
+		/**
+		 * {@link NumberFormat#getPercentInstance(Locale)}.
+		 */
+		PERCENT,
+
+		/**
+		 * {@link NumberFormat#getIntegerInstance(Locale)}.
+		 */
+		INTEGER;
+
+		private NumberFormat create(Locale locale) {
+			switch (this) {
+				case CURRENCY:
+					return NumberFormat.getCurrencyInstance(locale);
+				case PERCENT:
+					return NumberFormat.getPercentInstance(locale);
+				case INTEGER:
+					return NumberFormat.getIntegerInstance(locale);
+				default:
+					return NumberFormat.getNumberInstance(locale);
+			}
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package tsi.too.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A growable list of primitive {@code long} values, so large columns can be
+ * collected without boxing.
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class LongList implements LongConsumer {
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private long[] values;
+	private int size;
+
+	/**
+	 * Constructs an empty {@code LongList}.
+	 *
+	 * @since 0.1
+	 */
+	public LongList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty {@code LongList} with the given initial capacity.
+	 *
+	 * @param initialCapacity the initial capacity.
+	 * @throws IllegalArgumentException if {@code initialCapacity} is negative.
+	 *
+	 * @since 0.1
+	 */
+	public LongList(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("initialCapacity cannot be negative");
+
+		values = new long[initialCapacity];
+	}
+
+	/**
+	 * Appends a value to the end of this list.
+	 *
+	 * @param value the value to append.
+	 *
+	 * @since 0.1
+	 */
+	public void add(long value) {
+		if (size == values.length)
+			grow(size + 1);
+
+		values[size++] = value;
+	}
+
+	/**
+	 * Appends a value to the end of this list.
+	 *
+	 * @param value the value to append.
+	 *
+	 * @since 0.1
+	 */
+	@Override
+	public void accept(long value) {
+		add(value);
+	}
+
+	/**
+	 * Gets the value at the given index.
+	 *
+	 * @param index the index of the value.
+	 * @return the value.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public long get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+		return values[index];
+	}
+
+	/**
+	 * Gets the number of values in this list.
+	 *
+	 * @return the number of values.
+	 *
+	 * @since 0.1
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether this list has no values.
+	 *
+	 * @return true if this list is empty.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every value, keeping the allocated capacity.
+	 *
+	 * @since 0.1
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Copies the values to a new array.
+	 *
+	 * @return an array holding exactly the values of this list.
+	 *
+	 * @since 0.1
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	private void grow(int minCapacity) {
+		if (minCapacity > MAX_CAPACITY || minCapacity < 0)
+			throw new OutOfMemoryError("LongList cannot hold more than " + MAX_CAPACITY + " values");
+
+		final int doubled = values.length > MAX_CAPACITY / 2 ? MAX_CAPACITY : values.length * 2;
+		values = Arrays.copyOf(values, Math.max(Math.max(doubled, minCapacity), DEFAULT_CAPACITY));
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("[");
+
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				builder.append(", ");
+
+			builder.append(values[i]);
+		}
+
+		return builder.append(']').toString();
+	}
+}
@@ -0,0 +1,70 @@
+package tsi.too.util;
+
+/**
+ * An immutable pair of {@code long} values with value semantics.
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @see Pair
+ * @see PairList
+ */
+public final class LongLongPair {
+	private final long first;
+	private final long second;
+
+	/**
+	 * Constructs a new {@code LongLongPair} with the given values.
+	 *
+	 * @param first  the first element.
+	 * @param second the second element.
+	 *
+	 * @since 0.1
+	 */
+	public LongLongPair(long first, long second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * @return the first element.
+	 *
+	 * @since 0.1
+	 */
+	public long getFirst() {
+		return first;
+	}
+
+	/**
+	 * @return the second element.
+	 *
+	 * @since 0.1
+	 */
+	public long getSecond() {
+		return second;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+
+		if (!(obj instanceof LongLongPair))
+			return false;
+
+		final LongLongPair other = (LongLongPair) obj;
+
+		return first == other.first && second == other.second;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(first) + Long.hashCode(second);
+	}
+
+	@Override
+	public String toString() {
+		return first + ", " + second;
+	}
+}
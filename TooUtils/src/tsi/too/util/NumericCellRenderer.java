@@ -0,0 +1,55 @@
+package tsi.too.util;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import javax.swing.SwingConstants;
+
+import tsi.too.util.LocaleUtils.FormatStyle;
+
+/**
+ * A right-aligned, caching renderer for numeric columns. As in the default
+ * {@code JTable} renderers, {@code Float} and {@code Double} values are shown
+ * through the {@link NumberFormat} of a locale and every other value, including
+ * {@code BigDecimal}, as its {@code toString()}.
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @see CachingCellRenderer
+ */
+public class NumericCellRenderer extends CachingCellRenderer {
+	private static final long serialVersionUID = 1L;
+
+	private final Locale locale;
+
+	/**
+	 * Creates a numeric renderer for the default format locale.
+	 *
+	 * @since 0.1
+	 */
+	public NumericCellRenderer() {
+		this(Locale.getDefault(Locale.Category.FORMAT));
+	}
+
+	/**
+	 * Creates a numeric renderer for the given locale.
+	 *
+	 * @param locale the locale whose number format is used.
+	 *
+	 * @since 0.1
+	 */
+	public NumericCellRenderer(Locale locale) {
+		super(SwingConstants.RIGHT);
+		this.locale = locale;
+	}
+
+	@Override
+	protected String format(Object value) {
+		if (value instanceof Double || value instanceof Float)
+			return LocaleUtils.getNumberFormat(locale, FormatStyle.NUMBER).format(value);
+
+		return value.toString();
+	}
+}
@@ -0,0 +1,73 @@
+package tsi.too.util;
+
+import java.util.Objects;
+
+/**
+ * An immutable pair of an object and an {@code int} with value semantics.
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @param <E> the type of the first element.
+ *
+ * @see Pair
+ */
+public final class ObjIntPair<E> {
+	private final E first;
+	private final int second;
+
+	/**
+	 * Constructs a new {@code ObjIntPair} with the given values.
+	 *
+	 * @param first  the first element, may be null.
+	 * @param second the second element.
+	 *
+	 * @since 0.1
+	 */
+	public ObjIntPair(E first, int second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * @return the first element.
+	 *
+	 * @since 0.1
+	 */
+	public E getFirst() {
+		return first;
+	}
+
+	/**
+	 * @return the second element.
+	 *
+	 * @since 0.1
+	 */
+	public int getSecond() {
+		return second;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+
+		if (!(obj instanceof ObjIntPair))
+			return false;
+
+		final ObjIntPair<?> other = (ObjIntPair<?>) obj;
+
+		return second == other.second && Objects.equals(first, other.first);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hashCode(first) + second;
+	}
+
+	@Override
+	public String toString() {
+		return first + ", " + second;
+	}
+}
@@ -0,0 +1,337 @@
+package tsi.too.util;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A read-only {@code TableModel} that loads its rows on demand, a page at a
+ * time, from a {@link PageSource}, so a table can show millions of rows without
+ * holding them all in memory.
+ *
+ * <p>
+ * A cell whose page is not loaded yet shows the placeholder value, null by
+ * default, while the page is loaded on a background executor; the rows are
+ * repainted when it arrives. Only the most recently used pages are kept, and
+ * when the table scrolls onto a new page the next pages in the same direction
+ * are loaded ahead. Requests for pages that scrolled far away before their turn
+ * are dropped. Memory use is therefore bounded by {@code pageSize * maxPages}
+ * rows, and the first paint only loads the visible pages.
+ * </p>
+ *
+ * <p>
+ * Like other Swing models, this class must only be used on the event dispatch
+ * thread; only {@link PageSource#loadRows(int, int)} runs in the background.
+ * Do not sort a table showing this model through a {@code TableRowSorter},
+ * since sorting reads every row.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class PagedTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The default number of rows per page.
+	 *
+	 * @since 0.1
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 256;
+
+	/**
+	 * The default number of pages kept in memory.
+	 *
+	 * @since 0.1
+	 */
+	public static final int DEFAULT_MAX_PAGES = 64;
+
+	private static final int PREFETCH_PAGES = 2;
+
+	private static final int LOADER_THREADS = 2;
+	private static final ThreadPoolExecutor DEFAULT_EXECUTOR = new ThreadPoolExecutor(LOADER_THREADS,
+			LOADER_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+				final Thread thread = new Thread(runnable, "PagedTableModel-loader");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		DEFAULT_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private final transient PageSource source;
+	private final transient Executor executor;
+	private final String[] columnNames;
+	private final Class<?>[] columnClasses;
+	private final int pageSize;
+	private final int maxPages;
+
+	private final Map<Integer, Object[][]> pages;
+	private final Set<Integer> pendingPages = new HashSet<>();
+	private final Set<Integer> failedPages = new HashSet<>();
+
+	private Object placeholder;
+	private int rowCount;
+	private int lastPage;
+	private volatile int currentPage;
+	private volatile int generation;
+
+	/**
+	 * Creates a model with the default page size and page limit, loading the
+	 * pages on two shared daemon threads.
+	 *
+	 * @param source      where the rows are loaded from.
+	 * @param columnNames the names of the columns.
+	 *
+	 * @since 0.1
+	 */
+	public PagedTableModel(PageSource source, String[] columnNames) {
+		this(source, columnNames, null, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES, DEFAULT_EXECUTOR);
+	}
+
+	/**
+	 * Creates a model.
+	 *
+	 * @param source        where the rows are loaded from.
+	 * @param columnNames   the names of the columns.
+	 * @param columnClasses the classes of the columns, or null for
+	 *                      {@code Object}.
+	 * @param pageSize      the number of rows per page.
+	 * @param maxPages      the number of pages kept in memory.
+	 * @param executor      the executor the pages are loaded on.
+	 * @throws IllegalArgumentException if {@code pageSize} or {@code maxPages} is
+	 *                                  not positive, or the column classes do not
+	 *                                  match the names.
+	 *
+	 * @since 0.1
+	 */
+	public PagedTableModel(PageSource source, String[] columnNames, Class<?>[] columnClasses, int pageSize,
+			int maxPages, Executor executor) {
+		if (source == null || columnNames == null || executor == null)
+			throw new IllegalArgumentException("source, columnNames and executor cannot be null");
+
+		if (pageSize <= 0 || maxPages <= 0)
+			throw new IllegalArgumentException("pageSize and maxPages must be positive");
+
+		if (columnClasses != null && columnClasses.length != columnNames.length)
+			throw new IllegalArgumentException("there must be a column class for every column name");
+
+		this.source = source;
+		this.executor = executor;
+		this.columnNames = columnNames.clone();
+		this.columnClasses = columnClasses == null ? null : columnClasses.clone();
+		this.pageSize = pageSize;
+		this.maxPages = Math.max(maxPages, PREFETCH_PAGES + 1);
+		this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+				return size() > PagedTableModel.this.maxPages;
+			}
+		};
+		this.rowCount = Math.max(0, source.getRowCount());
+	}
+
+	@Override
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return columnNames[column];
+	}
+
+	@Override
+	public Class<?> getColumnClass(int columnIndex) {
+		return columnClasses == null ? Object.class : columnClasses[columnIndex];
+	}
+
+	/**
+	 * Gets the value of a cell, or the placeholder if its page is not loaded yet.
+	 * Asking for a cell whose page is not loaded starts loading it.
+	 */
+	@Override
+	public Object getValueAt(int rowIndex, int columnIndex) {
+		final int page = rowIndex / pageSize;
+		final Object[][] rows = pages.get(page);
+
+		if (page != lastPage) {
+			prefetch(page, page > lastPage ? 1 : -1);
+			lastPage = page;
+			currentPage = page;
+		}
+
+		if (rows == null) {
+			request(page);
+			return placeholder;
+		}
+
+		final int offset = rowIndex - page * pageSize;
+		final Object[] row = offset < rows.length ? rows[offset] : null;
+
+		return row != null && columnIndex < row.length ? row[columnIndex] : placeholder;
+	}
+
+	/**
+	 * Checks whether the page of a row is loaded.
+	 *
+	 * @param rowIndex the index of the row.
+	 * @return true if the row is in memory.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isRowLoaded(int rowIndex) {
+		return pages.containsKey(rowIndex / pageSize);
+	}
+
+	/**
+	 * Gets the value shown by the cells whose page is not loaded yet.
+	 *
+	 * @return the placeholder, null by default.
+	 *
+	 * @since 0.1
+	 */
+	public Object getPlaceholder() {
+		return placeholder;
+	}
+
+	/**
+	 * Sets the value shown by the cells whose page is not loaded yet. It must
+	 * suit the renderers of every column.
+	 *
+	 * @param placeholder the placeholder, may be null.
+	 *
+	 * @since 0.1
+	 */
+	public void setPlaceholder(Object placeholder) {
+		this.placeholder = placeholder;
+	}
+
+	/**
+	 * Drops every loaded page and reads the row count again, for when the source
+	 * changed. Pages being loaded are discarded when they arrive.
+	 *
+	 * @since 0.1
+	 */
+	public void refresh() {
+		generation++;
+		pages.clear();
+		pendingPages.clear();
+		failedPages.clear();
+		rowCount = Math.max(0, source.getRowCount());
+		fireTableDataChanged();
+	}
+
+	private void prefetch(int page, int direction) {
+		for (int i = 1; i <= PREFETCH_PAGES; i++) {
+			final int next = page + i * direction;
+
+			if (next >= 0 && next * pageSize < rowCount && !pages.containsKey(next))
+				request(next);
+		}
+	}
+
+	private void request(int page) {
+		if (pendingPages.contains(page) || failedPages.contains(page))
+			return;
+
+		final int requestGeneration = generation;
+		final int firstRow = page * pageSize;
+		final int count = Math.min(pageSize, rowCount - firstRow);
+
+		if (count <= 0)
+			return;
+
+		pendingPages.add(page);
+		executor.execute(() -> {
+			// the table scrolled away before this page got its turn
+			if (requestGeneration != generation || Math.abs(page - currentPage) > maxPages / 2) {
+				SwingUtilities.invokeLater(() -> {
+					if (requestGeneration == generation)
+						pendingPages.remove(page);
+				});
+				return;
+			}
+
+			Object[][] rows;
+
+			try {
+				rows = source.loadRows(firstRow, count);
+			} catch (Exception ex) {
+				rows = null;
+			}
+
+			final Object[][] loaded = rows;
+
+			SwingUtilities.invokeLater(() -> arrived(page, firstRow, loaded, requestGeneration));
+		});
+	}
+
+	private void arrived(int page, int firstRow, Object[][] rows, int requestGeneration) {
+		if (requestGeneration != generation)
+			return;
+
+		pendingPages.remove(page);
+
+		if (rows == null) {
+			// not retried until refresh, so a failing source is not queried on every repaint
+			failedPages.add(page);
+			return;
+		}
+
+		pages.put(page, rows);
+
+		final int lastRow = Math.min(rowCount, firstRow + pageSize) - 1;
+
+		if (lastRow >= firstRow)
+			fireTableRowsUpdated(firstRow, lastRow);
+	}
+
+	/**
+	 * Where a {@link PagedTableModel} loads its rows from, such as a database
+	 * query.
+	 *
+	 * @author Lucas Cristovam
+	 *
+	 * @since 0.1
+	 */
+	public interface PageSource {
+
+		/**
+		 * Gets the total number of rows. Called on the event dispatch thread, when
+		 * the model is created and refreshed.
+		 *
+		 * @return the number of rows.
+		 */
+		int getRowCount();
+
+		/**
+		 * Loads a block of rows. Called on a background thread.
+		 *
+		 * @param firstRow the index of the first row to load.
+		 * @param count    the number of rows to load.
+		 * @return the rows, each an array with a value per column; missing rows
+		 *         show the placeholder.
+		 * @throws Exception if the rows cannot be loaded; the page then shows the
+		 *                   placeholder until {@link PagedTableModel#refresh()}.
+		 */
+		Object[][] loadRows(int firstRow, int count) throws Exception;
+	}
+}
@@ -1,16 +1,41 @@
 package tsi.too.util;
 
-public class Pair<E, T>{
+import java.util.Objects;
+
+/**
+ * An immutable pair of values with value semantics, so it can be used as a
+ * {@code HashMap} key.
+ *
+ * <p>
+ * The hash code is computed once and cached, which assumes the elements are
+ * not changed in a way that affects their own hash codes. For primitive
+ * elements, prefer the unboxed variants such as {@link IntIntPair} or a
+ * {@link PairList}.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.2
+ *
+ * @param <E> the type of the first element.
+ * @param <T> the type of the second element.
+ */
+public final class Pair<E, T>{
 	
 	/**
      * The first element of this <code>Pair</code>
      */
-    private E first;
+    private final E first;
 
     /**
      * The second element of this <code>Pair</code>
      */
-    private T second;
+    private final T second;
+
+    /**
+     * The cached hash code, or 0 if not computed yet.
+     */
+    private int hash;
 
     /**
      * Constructs a new <code>Pair</code> with the given values.
@@ -32,6 +57,40 @@ public class Pair<E, T>{
 		return second;
 	}
     
+    /**
+     * Two pairs are equal if both of their elements are equal.
+     *
+     * @since 0.2
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
+        if (!(obj instanceof Pair))
+            return false;
+
+        final Pair<?, ?> other = (Pair<?, ?>) obj;
+
+        return hashCode() == other.hashCode() && Objects.equals(first, other.first)
+                && Objects.equals(second, other.second);
+    }
+
+    /**
+     * @since 0.2
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+
+        if (h == 0) {
+            h = 31 * Objects.hashCode(first) + Objects.hashCode(second);
+            hash = h;
+        }
+
+        return h;
+    }
+
     @Override
     public String toString() {
     	return String.format("%s, %s", first, second);
@@ -0,0 +1,519 @@
+package tsi.too.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A growable buffer of {@code long} pairs, such as (account id, cents), kept
+ * outside the Java heap.
+ *
+ * <p>
+ * Each pair takes 16 bytes in direct or memory-mapped chunks of 64 MB, so the
+ * heap only holds one reference per chunk however many pairs there are, and
+ * the pairs are never scanned by the garbage collector. A buffer created by
+ * {@link #map(Path)} lives in a file, in native byte order, which may be
+ * larger than the memory and is reopened with its pairs on the next call.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe, but its {@link #spliterator()} may be
+ * traversed in parallel as long as the buffer is not modified meanwhile.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @see PairList
+ */
+public class PairBuffer implements Closeable {
+	private static final int PAIR_BYTES = 16;
+	private static final int CHUNK_SHIFT = 22;
+	private static final int CHUNK_PAIRS = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_PAIRS - 1;
+	private static final int INITIAL_PAIRS = 1 << 10;
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	private final FileChannel channel;
+	private ByteBuffer[] chunks = new ByteBuffer[4];
+	private int chunkCount;
+	private long capacity;
+	private long size;
+	private boolean closed;
+
+	/**
+	 * Constructs an empty buffer backed by direct memory.
+	 *
+	 * @since 0.1
+	 */
+	public PairBuffer() {
+		this.channel = null;
+	}
+
+	private PairBuffer(FileChannel channel, long size) throws IOException {
+		this.channel = channel;
+
+		while (capacity < size)
+			addChunk(CHUNK_PAIRS);
+
+		this.size = size;
+	}
+
+	/**
+	 * Opens a buffer backed by a memory-mapped file, creating the file if needed.
+	 * The pairs already in the file are kept.
+	 *
+	 * <p>
+	 * The file grows a chunk at a time while the buffer is open and is cut back
+	 * to exactly {@code 16 * size()} bytes by {@link #close()}, where the system
+	 * allows cutting a mapped file.
+	 * </p>
+	 *
+	 * @param path the file holding the pairs.
+	 * @return the buffer, which must be closed.
+	 * @throws IOException if the file cannot be opened or mapped, or if its size
+	 *                     is not a multiple of 16 bytes.
+	 *
+	 * @since 0.1
+	 */
+	public static PairBuffer map(Path path) throws IOException {
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		try {
+			final long bytes = channel.size();
+
+			if (bytes % PAIR_BYTES != 0)
+				throw new IOException("File size is not a multiple of " + PAIR_BYTES + " bytes: " + path);
+
+			return new PairBuffer(channel, bytes / PAIR_BYTES);
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Appends a pair to the end of this buffer.
+	 *
+	 * @param first  the first element.
+	 * @param second the second element.
+	 * @throws UncheckedIOException if a file-backed buffer cannot grow.
+	 *
+	 * @since 0.1
+	 */
+	public void add(long first, long second) {
+		if (size == capacity)
+			grow();
+
+		final ByteBuffer chunk = chunks[(int) (size >>> CHUNK_SHIFT)];
+		final int offset = ((int) size & CHUNK_MASK) * PAIR_BYTES;
+
+		chunk.putLong(offset, first);
+		chunk.putLong(offset + 8, second);
+		size++;
+	}
+
+	/**
+	 * Gets the first element of the pair at the given index.
+	 *
+	 * @param index the index of the pair.
+	 * @return the first element.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public long getFirst(long index) {
+		checkIndex(index);
+
+		return chunks[(int) (index >>> CHUNK_SHIFT)].getLong(((int) index & CHUNK_MASK) * PAIR_BYTES);
+	}
+
+	/**
+	 * Gets the second element of the pair at the given index.
+	 *
+	 * @param index the index of the pair.
+	 * @return the second element.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public long getSecond(long index) {
+		checkIndex(index);
+
+		return chunks[(int) (index >>> CHUNK_SHIFT)].getLong(((int) index & CHUNK_MASK) * PAIR_BYTES + 8);
+	}
+
+	/**
+	 * Gets the pair at the given index as an object.
+	 *
+	 * @param index the index of the pair.
+	 * @return a new {@link LongLongPair} with the elements of the pair.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public LongLongPair get(long index) {
+		return new LongLongPair(getFirst(index), getSecond(index));
+	}
+
+	/**
+	 * Replaces the pair at the given index.
+	 *
+	 * @param index  the index of the pair.
+	 * @param first  the new first element.
+	 * @param second the new second element.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public void set(long index, long first, long second) {
+		checkIndex(index);
+
+		final ByteBuffer chunk = chunks[(int) (index >>> CHUNK_SHIFT)];
+		final int offset = ((int) index & CHUNK_MASK) * PAIR_BYTES;
+
+		chunk.putLong(offset, first);
+		chunk.putLong(offset + 8, second);
+	}
+
+	/**
+	 * Gets the number of pairs in this buffer.
+	 *
+	 * @return the number of pairs.
+	 *
+	 * @since 0.1
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether this buffer has no pairs.
+	 *
+	 * @return true if this buffer is empty.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every pair, keeping the allocated memory.
+	 *
+	 * @since 0.1
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Sorts the pairs in place by their first elements, breaking ties by their
+	 * second elements. No memory is allocated.
+	 *
+	 * @since 0.1
+	 */
+	public void sortByFirst() {
+		sort(0, size, 0, depthLimit());
+	}
+
+	/**
+	 * Sorts the pairs in place by their second elements, breaking ties by their
+	 * first elements. No memory is allocated.
+	 *
+	 * @since 0.1
+	 */
+	public void sortBySecond() {
+		sort(0, size, 8, depthLimit());
+	}
+
+	/**
+	 * Creates a {@code Spliterator} over the pairs, which splits evenly for
+	 * parallel streams.
+	 *
+	 * @return a spliterator handing out a {@link LongLongPair} per pair.
+	 *
+	 * @since 0.1
+	 */
+	public Spliterator<LongLongPair> spliterator() {
+		return new PairSpliterator(0, size);
+	}
+
+	/**
+	 * Creates a stream over the pairs.
+	 *
+	 * @param parallel whether the stream is parallel.
+	 * @return a stream of a {@link LongLongPair} per pair.
+	 *
+	 * @since 0.1
+	 */
+	public Stream<LongLongPair> stream(boolean parallel) {
+		return StreamSupport.stream(spliterator(), parallel);
+	}
+
+	/**
+	 * Writes a file-backed buffer to its file and cuts the file to its pairs.
+	 * Memory is released once the buffer is no longer referenced; the buffer
+	 * must not be used after it is closed. Closing a closed buffer has no effect.
+	 *
+	 * <p>
+	 * The file is cut while its chunks are still mapped, since mappings are only
+	 * dropped when garbage collected. Where that is not allowed, as on Windows,
+	 * the file keeps its mapped length, padded with zero pairs up to a whole
+	 * chunk, and a buffer mapped from it again holds those pairs too.
+	 * </p>
+	 *
+	 * @throws IOException if the file cannot be written.
+	 *
+	 * @since 0.1
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+
+		closed = true;
+
+		if (channel == null) {
+			chunks = new ByteBuffer[0];
+			chunkCount = 0;
+			capacity = size = 0;
+			return;
+		}
+
+		try (channel) {
+			for (int i = 0; i < chunkCount; i++)
+				((MappedByteBuffer) chunks[i]).force();
+
+			chunks = new ByteBuffer[0];
+			chunkCount = 0;
+
+			try {
+				channel.truncate(size * PAIR_BYTES);
+			} catch (IOException ex) {
+				// the file is still mapped; it keeps its mapped length
+			}
+		}
+	}
+
+	private void grow() {
+		try {
+			if (channel == null && chunkCount == 1 && capacity < CHUNK_PAIRS) {
+				// a small buffer doubles its only chunk before taking whole chunks
+				final ByteBuffer old = chunks[0];
+				final ByteBuffer chunk = allocate((int) Math.min(capacity * 2, CHUNK_PAIRS));
+
+				chunk.put(old.duplicate().clear());
+				chunks[0] = chunk;
+				capacity = chunk.capacity() / PAIR_BYTES;
+			} else {
+				addChunk(channel == null && chunkCount == 0 ? INITIAL_PAIRS : CHUNK_PAIRS);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private void addChunk(int pairs) throws IOException {
+		if (chunkCount == chunks.length)
+			chunks = Arrays.copyOf(chunks, chunkCount * 2);
+
+		chunks[chunkCount] = channel == null ? allocate(pairs)
+				: channel.map(FileChannel.MapMode.READ_WRITE, (long) chunkCount * CHUNK_PAIRS * PAIR_BYTES,
+						(long) CHUNK_PAIRS * PAIR_BYTES).order(ByteOrder.nativeOrder());
+		chunkCount++;
+		capacity = (long) (chunkCount - 1) * CHUNK_PAIRS + pairs;
+	}
+
+	private static ByteBuffer allocate(int pairs) {
+		return ByteBuffer.allocateDirect(pairs * PAIR_BYTES).order(ByteOrder.nativeOrder());
+	}
+
+	private void checkIndex(long index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+	private int depthLimit() {
+		return 2 * (64 - Long.numberOfLeadingZeros(size));
+	}
+
+	/**
+	 * Reads the element at {@code keyOffset} (0 for the first, 8 for the second)
+	 * of a pair, without bounds checks.
+	 */
+	private long key(long index, int keyOffset) {
+		return chunks[(int) (index >>> CHUNK_SHIFT)].getLong(((int) index & CHUNK_MASK) * PAIR_BYTES + keyOffset);
+	}
+
+	private int compare(long i, long j, int keyOffset) {
+		final int byKey = Long.compare(key(i, keyOffset), key(j, keyOffset));
+
+		return byKey != 0 ? byKey : Long.compare(key(i, 8 - keyOffset), key(j, 8 - keyOffset));
+	}
+
+	private void swap(long i, long j) {
+		final ByteBuffer chunkI = chunks[(int) (i >>> CHUNK_SHIFT)];
+		final ByteBuffer chunkJ = chunks[(int) (j >>> CHUNK_SHIFT)];
+		final int offsetI = ((int) i & CHUNK_MASK) * PAIR_BYTES;
+		final int offsetJ = ((int) j & CHUNK_MASK) * PAIR_BYTES;
+		final long first = chunkI.getLong(offsetI);
+		final long second = chunkI.getLong(offsetI + 8);
+
+		chunkI.putLong(offsetI, chunkJ.getLong(offsetJ));
+		chunkI.putLong(offsetI + 8, chunkJ.getLong(offsetJ + 8));
+		chunkJ.putLong(offsetJ, first);
+		chunkJ.putLong(offsetJ + 8, second);
+	}
+
+	/**
+	 * Introsort of {@code [from, to)}: quicksort with a median-of-three pivot,
+	 * falling back to heapsort past the depth limit and finishing small ranges
+	 * with insertion sort.
+	 */
+	private void sort(long from, long to, int keyOffset, int depth) {
+		while (to - from > INSERTION_SORT_THRESHOLD) {
+			if (depth-- == 0) {
+				heapSort(from, to, keyOffset);
+				return;
+			}
+
+			final long middle = from + ((to - from) >>> 1);
+
+			// orders from, middle and to - 1, leaving the median in the middle
+			if (compare(middle, from, keyOffset) < 0)
+				swap(middle, from);
+			if (compare(to - 1, middle, keyOffset) < 0) {
+				swap(to - 1, middle);
+				if (compare(middle, from, keyOffset) < 0)
+					swap(middle, from);
+			}
+
+			swap(middle, to - 2);
+			final long pivot = to - 2;
+			long i = from;
+			long j = to - 2;
+
+			while (true) {
+				while (compare(++i, pivot, keyOffset) < 0)
+					;
+				while (compare(--j, pivot, keyOffset) > 0)
+					;
+
+				if (i >= j)
+					break;
+
+				swap(i, j);
+			}
+
+			swap(i, pivot);
+
+			// recurses into the smaller side, so the stack stays logarithmic
+			if (i - from < to - i) {
+				sort(from, i, keyOffset, depth);
+				from = i + 1;
+			} else {
+				sort(i + 1, to, keyOffset, depth);
+				to = i;
+			}
+		}
+
+		for (long i = from + 1; i < to; i++) {
+			for (long j = i; j > from && compare(j, j - 1, keyOffset) < 0; j--)
+				swap(j, j - 1);
+		}
+	}
+
+	private void heapSort(long from, long to, int keyOffset) {
+		final long count = to - from;
+
+		for (long i = count / 2 - 1; i >= 0; i--)
+			siftDown(from, i, count, keyOffset);
+
+		for (long end = count - 1; end > 0; end--) {
+			swap(from, from + end);
+			siftDown(from, 0, end, keyOffset);
+		}
+	}
+
+	private void siftDown(long from, long node, long count, int keyOffset) {
+		while (true) {
+			long child = 2 * node + 1;
+
+			if (child >= count)
+				return;
+
+			if (child + 1 < count && compare(from + child + 1, from + child, keyOffset) > 0)
+				child++;
+
+			if (compare(from + node, from + child, keyOffset) >= 0)
+				return;
+
+			swap(from + node, from + child);
+			node = child;
+		}
+	}
+
+	private class PairSpliterator implements Spliterator<LongLongPair> {
+		private long index;
+		private final long fence;
+
+		private PairSpliterator(long index, long fence) {
+			this.index = index;
+			this.fence = fence;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super LongLongPair> action) {
+			if (index >= fence)
+				return false;
+
+			action.accept(new LongLongPair(key(index, 0), key(index, 8)));
+			index++;
+
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super LongLongPair> action) {
+			for (; index < fence; index++)
+				action.accept(new LongLongPair(key(index, 0), key(index, 8)));
+		}
+
+		@Override
+		public Spliterator<LongLongPair> trySplit() {
+			final long middle = index + ((fence - index) >>> 1);
+
+			if (middle - index < 1024)
+				return null;
+
+			final Spliterator<LongLongPair> prefix = new PairSpliterator(index, middle);
+			index = middle;
+
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package tsi.too.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of {@code long} pairs, stored as two parallel primitive
+ * arrays, so large numbers of pairs such as (account id, cents) take 16 bytes
+ * each instead of a {@link Pair} and two boxed values.
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ *
+ * @see LongLongPair
+ */
+public class PairList {
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private long[] firsts;
+	private long[] seconds;
+	private int size;
+
+	/**
+	 * Constructs an empty {@code PairList}.
+	 *
+	 * @since 0.1
+	 */
+	public PairList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty {@code PairList} with the given initial capacity.
+	 *
+	 * @param initialCapacity the initial capacity, in pairs.
+	 * @throws IllegalArgumentException if {@code initialCapacity} is negative.
+	 *
+	 * @since 0.1
+	 */
+	public PairList(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("initialCapacity cannot be negative");
+
+		firsts = new long[initialCapacity];
+		seconds = new long[initialCapacity];
+	}
+
+	/**
+	 * Appends a pair to the end of this list.
+	 *
+	 * @param first  the first element.
+	 * @param second the second element.
+	 *
+	 * @since 0.1
+	 */
+	public void add(long first, long second) {
+		if (size == firsts.length)
+			grow(size + 1);
+
+		firsts[size] = first;
+		seconds[size++] = second;
+	}
+
+	/**
+	 * Gets the first element of the pair at the given index.
+	 *
+	 * @param index the index of the pair.
+	 * @return the first element.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public long getFirst(int index) {
+		checkIndex(index);
+
+		return firsts[index];
+	}
+
+	/**
+	 * Gets the second element of the pair at the given index.
+	 *
+	 * @param index the index of the pair.
+	 * @return the second element.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public long getSecond(int index) {
+		checkIndex(index);
+
+		return seconds[index];
+	}
+
+	/**
+	 * Gets the pair at the given index as an object.
+	 *
+	 * @param index the index of the pair.
+	 * @return a new {@link LongLongPair} with the elements of the pair.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public LongLongPair get(int index) {
+		checkIndex(index);
+
+		return new LongLongPair(firsts[index], seconds[index]);
+	}
+
+	/**
+	 * Replaces the pair at the given index.
+	 *
+	 * @param index  the index of the pair.
+	 * @param first  the new first element.
+	 * @param second the new second element.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 *
+	 * @since 0.1
+	 */
+	public void set(int index, long first, long second) {
+		checkIndex(index);
+
+		firsts[index] = first;
+		seconds[index] = second;
+	}
+
+	/**
+	 * Gets the number of pairs in this list.
+	 *
+	 * @return the number of pairs.
+	 *
+	 * @since 0.1
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether this list has no pairs.
+	 *
+	 * @return true if this list is empty.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every pair, keeping the allocated capacity.
+	 *
+	 * @since 0.1
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Copies the first elements to a new array.
+	 *
+	 * @return an array holding the first element of every pair, in order.
+	 *
+	 * @since 0.1
+	 */
+	public long[] toFirstArray() {
+		return Arrays.copyOf(firsts, size);
+	}
+
+	/**
+	 * Copies the second elements to a new array.
+	 *
+	 * @return an array holding the second element of every pair, in order.
+	 *
+	 * @since 0.1
+	 */
+	public long[] toSecondArray() {
+		return Arrays.copyOf(seconds, size);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+	private void grow(int minCapacity) {
+		if (minCapacity > MAX_CAPACITY || minCapacity < 0)
+			throw new OutOfMemoryError("PairList cannot hold more than " + MAX_CAPACITY + " pairs");
+
+		final int doubled = firsts.length > MAX_CAPACITY / 2 ? MAX_CAPACITY : firsts.length * 2;
+		final int capacity = Math.max(Math.max(doubled, minCapacity), DEFAULT_CAPACITY);
+
+		firsts = Arrays.copyOf(firsts, capacity);
+		seconds = Arrays.copyOf(seconds, capacity);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("[");
+
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				builder.append(", ");
+
+			builder.append('(').append(firsts[i]).append(", ").append(seconds[i]).append(')');
+		}
+
+		return builder.append(']').toString();
+	}
+}
@@ -0,0 +1,731 @@
+package tsi.too.util;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
+import javax.swing.table.TableModel;
+
+import tsi.too.ext.Money;
+
+/**
+ * A {@link RowSorter} for large tables that sorts and filters on a
+ * {@link ForkJoinPool} instead of the event dispatch thread.
+ *
+ * <p>
+ * When the sort keys or the filter change, the values of the sort columns are
+ * copied on the event dispatch thread into primitive arrays where possible, and
+ * the rows are then filtered and sorted in parallel into an {@code int[]} view
+ * index. The table keeps showing the previous order until the new index is
+ * applied, at once, on the event dispatch thread. A sort or filter started
+ * while another is running cancels it.
+ * </p>
+ *
+ * <p>
+ * The sort key of a column is, in order of preference:
+ * </p>
+ *
+ * <ul>
+ * <li>a key function given through {@link #setLongKey(int, IntToLongFunction)}
+ * or {@link #setDoubleKey(int, IntToDoubleFunction)};</li>
+ * <li>for a {@link ColumnarTableModel}, the primitive value of int, long, cents,
+ * date and double columns;</li>
+ * <li>otherwise the cell value, compared with the comparator given through
+ * {@link #setComparator(int, Comparator)}, or, in {@code String} columns, with
+ * the {@link Collator} of the default locale, as {@code TableRowSorter} does,
+ * or in its natural order, or by its {@code toString()}. Null values come
+ * first.</li>
+ * </ul>
+ *
+ * <p>
+ * Sorts are stable. Filters run on the pool too, so a filter must only read
+ * data that is not changed while it runs. {@link #refineRowFilter(IntPredicate)}
+ * filters only the rows in view, for filters that narrow the previous one, such
+ * as a search box receiving one more character. If a filter or comparator
+ * throws, the previous view is kept and the exception is rethrown on the event
+ * dispatch thread. Like other Swing sorters, this class must only be used on
+ * the event dispatch thread.
+ * </p>
+ *
+ * @author Lucas Cristovam
+ *
+ * @version 0.1
+ */
+public class ParallelRowSorter extends RowSorter<TableModel> {
+	private static final int MAX_SORT_KEYS = 3;
+	private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+	private static final int INSERTION_THRESHOLD = 32;
+	private static final int CANCEL_CHECK_MASK = (1 << 12) - 1;
+
+	private final TableModel model;
+	private final ForkJoinPool pool;
+	private final Map<Integer, Comparator<?>> comparators = new HashMap<>();
+	private final Map<Integer, IntToLongFunction> longKeys = new HashMap<>();
+	private final Map<Integer, IntToDoubleFunction> doubleKeys = new HashMap<>();
+
+	private List<SortKey> sortKeys = Collections.emptyList();
+	private IntPredicate rowFilter;
+	private boolean sortsOnUpdates;
+
+	/** The model row of every view row, or null when every row shows in model order. */
+	private int[] viewToModel;
+	private int[] modelToView;
+
+	private volatile int generation;
+	private boolean running;
+
+	/**
+	 * Creates a sorter running on the common {@link ForkJoinPool}.
+	 *
+	 * @param model the model to sort.
+	 *
+	 * @since 0.1
+	 */
+	public ParallelRowSorter(TableModel model) {
+		this(model, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a sorter running on the given pool.
+	 *
+	 * @param model the model to sort.
+	 * @param pool  the pool the rows are sorted and filtered on.
+	 * @throws IllegalArgumentException if {@code model} or {@code pool} is null.
+	 *
+	 * @since 0.1
+	 */
+	public ParallelRowSorter(TableModel model, ForkJoinPool pool) {
+		if (model == null || pool == null)
+			throw new IllegalArgumentException("model and pool cannot be null");
+
+		this.model = model;
+		this.pool = pool;
+	}
+
+	@Override
+	public TableModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Sets the comparator of the values of a column.
+	 *
+	 * @param column     the model index of the column.
+	 * @param comparator the comparator, or null for the natural order.
+	 *
+	 * @since 0.1
+	 */
+	public void setComparator(int column, Comparator<?> comparator) {
+		setKey(comparators, column, comparator);
+	}
+
+	/**
+	 * Sorts a column by a {@code long} key computed for each model row, such as a
+	 * value read from a primitive array, without boxing.
+	 *
+	 * @param column the model index of the column.
+	 * @param key    the key of every model row, or null to remove it. Called on
+	 *               the event dispatch thread.
+	 *
+	 * @since 0.1
+	 */
+	public void setLongKey(int column, IntToLongFunction key) {
+		setKey(longKeys, column, key);
+	}
+
+	/**
+	 * Sorts a column by a {@code double} key computed for each model row, without
+	 * boxing.
+	 *
+	 * @param column the model index of the column.
+	 * @param key    the key of every model row, or null to remove it. Called on
+	 *               the event dispatch thread.
+	 *
+	 * @since 0.1
+	 */
+	public void setDoubleKey(int column, IntToDoubleFunction key) {
+		setKey(doubleKeys, column, key);
+	}
+
+	/**
+	 * Sets whether updated rows are sorted again, false by default as in
+	 * {@link javax.swing.DefaultRowSorter}.
+	 *
+	 * @param sortsOnUpdates whether to sort on updates.
+	 *
+	 * @since 0.1
+	 */
+	public void setSortsOnUpdates(boolean sortsOnUpdates) {
+		this.sortsOnUpdates = sortsOnUpdates;
+	}
+
+	/**
+	 * Gets the row filter.
+	 *
+	 * @return the filter, or null if every row is shown.
+	 *
+	 * @since 0.1
+	 */
+	public IntPredicate getRowFilter() {
+		return rowFilter;
+	}
+
+	/**
+	 * Sets the row filter and filters every model row again in the background.
+	 *
+	 * @param filter tests whether a model row is shown, or null to show every
+	 *               row. Called on the pool.
+	 *
+	 * @since 0.1
+	 */
+	public void setRowFilter(IntPredicate filter) {
+		rowFilter = filter;
+		schedule();
+	}
+
+	/**
+	 * Sets a row filter that only shows rows the current filter shows, so only the
+	 * rows in view are tested and the order is kept without sorting again.
+	 *
+	 * @param filter tests whether a model row is shown. Called on the pool.
+	 * @throws IllegalArgumentException if {@code filter} is null.
+	 *
+	 * @since 0.1
+	 */
+	public void refineRowFilter(IntPredicate filter) {
+		if (filter == null)
+			throw new IllegalArgumentException("filter cannot be null");
+
+		rowFilter = filter;
+
+		if (running) {
+			// the view being built used the previous filter
+			schedule();
+			return;
+		}
+
+		final int[] view = viewToModel;
+		final int rowCount = model.getRowCount();
+		final int task = ++generation;
+
+		running = true;
+		pool.execute(() -> {
+			try {
+				final IntStream rows = view == null ? IntStream.range(0, rowCount) : IntStream.of(view);
+				final int[] filtered = rows.parallel().filter(row -> {
+					checkCancelled(task, row);
+					return filter.test(row);
+				}).toArray();
+
+				SwingUtilities.invokeLater(() -> apply(task, filtered));
+			} catch (CancellationException ex) {
+				// a newer task replaced this one
+			} catch (RuntimeException ex) {
+				SwingUtilities.invokeLater(() -> fail(task, ex));
+			}
+		});
+	}
+
+	@Override
+	public void toggleSortOrder(int column) {
+		checkColumn(column);
+
+		final List<SortKey> keys = new ArrayList<>(sortKeys);
+		SortOrder order = SortOrder.ASCENDING;
+
+		for (int i = 0; i < keys.size(); i++) {
+			if (keys.get(i).getColumn() == column) {
+				if (i == 0 && keys.get(i).getSortOrder() == SortOrder.ASCENDING)
+					order = SortOrder.DESCENDING;
+
+				keys.remove(i);
+				break;
+			}
+		}
+
+		keys.add(0, new SortKey(column, order));
+
+		setSortKeys(keys.size() > MAX_SORT_KEYS ? keys.subList(0, MAX_SORT_KEYS) : keys);
+	}
+
+	@Override
+	public int convertRowIndexToModel(int index) {
+		if (viewToModel == null) {
+			if (index < 0 || index >= model.getRowCount())
+				throw new IndexOutOfBoundsException("Invalid index: " + index);
+
+			return index;
+		}
+
+		return viewToModel[index];
+	}
+
+	@Override
+	public int convertRowIndexToView(int index) {
+		if (viewToModel == null) {
+			if (index < 0 || index >= model.getRowCount())
+				throw new IndexOutOfBoundsException("Invalid index: " + index);
+
+			return index;
+		}
+
+		if (modelToView == null) {
+			modelToView = new int[model.getRowCount()];
+			Arrays.fill(modelToView, -1);
+
+			for (int i = 0; i < viewToModel.length; i++)
+				modelToView[viewToModel[i]] = i;
+		}
+
+		return modelToView[index];
+	}
+
+	@Override
+	public void setSortKeys(List<? extends SortKey> keys) {
+		final List<SortKey> newKeys = keys == null ? Collections.emptyList()
+				: Collections.unmodifiableList(new ArrayList<>(keys));
+
+		for (SortKey key : newKeys)
+			checkColumn(key.getColumn());
+
+		if (newKeys.equals(sortKeys))
+			return;
+
+		sortKeys = newKeys;
+		fireSortOrderChanged();
+		schedule();
+	}
+
+	@Override
+	public List<? extends SortKey> getSortKeys() {
+		return sortKeys;
+	}
+
+	@Override
+	public int getViewRowCount() {
+		return viewToModel == null ? model.getRowCount() : viewToModel.length;
+	}
+
+	@Override
+	public int getModelRowCount() {
+		return model.getRowCount();
+	}
+
+	@Override
+	public void modelStructureChanged() {
+		generation++;
+		running = false;
+		comparators.clear();
+		longKeys.clear();
+		doubleKeys.clear();
+		rowFilter = null;
+
+		if (!sortKeys.isEmpty()) {
+			sortKeys = Collections.emptyList();
+			fireSortOrderChanged();
+		}
+
+		setView(null);
+	}
+
+	@Override
+	public void allRowsChanged() {
+		final int rowCount = model.getRowCount();
+
+		// keeps the current order while sorting again, unless it lost some rows
+		if (viewToModel != null && Arrays.stream(viewToModel).anyMatch(row -> row >= rowCount))
+			setView(null);
+
+		schedule();
+	}
+
+	@Override
+	public void rowsInserted(int firstRow, int endRow) {
+		checkRange(firstRow, endRow);
+
+		if (viewToModel != null) {
+			// shows the new rows at the end until they are sorted and filtered
+			final int count = endRow - firstRow + 1;
+			final int[] view = Arrays.copyOf(viewToModel, viewToModel.length + count);
+
+			for (int i = 0; i < viewToModel.length; i++) {
+				if (view[i] >= firstRow)
+					view[i] += count;
+			}
+
+			for (int i = 0; i < count; i++)
+				view[viewToModel.length + i] = firstRow + i;
+
+			setView(view);
+		}
+
+		if (running || viewToModel != null)
+			schedule();
+	}
+
+	@Override
+	public void rowsDeleted(int firstRow, int endRow) {
+		if (viewToModel != null) {
+			final int count = endRow - firstRow + 1;
+			final int[] view = new int[viewToModel.length];
+			int size = 0;
+
+			for (int row : viewToModel) {
+				if (row < firstRow)
+					view[size++] = row;
+				else if (row > endRow)
+					view[size++] = row - count;
+			}
+
+			setView(Arrays.copyOf(view, size));
+		}
+
+		// the view being built still holds the deleted rows
+		if (running)
+			schedule();
+	}
+
+	@Override
+	public void rowsUpdated(int firstRow, int endRow) {
+		checkRange(firstRow, endRow);
+
+		if (sortsOnUpdates || rowFilter != null)
+			schedule();
+	}
+
+	@Override
+	public void rowsUpdated(int firstRow, int endRow, int column) {
+		checkColumn(column);
+		rowsUpdated(firstRow, endRow);
+	}
+
+	private <V> void setKey(Map<Integer, V> keys, int column, V key) {
+		checkColumn(column);
+
+		if (key == null)
+			keys.remove(column);
+		else
+			keys.put(column, key);
+
+		if (sortKeys.stream().anyMatch(sortKey -> sortKey.getColumn() == column))
+			schedule();
+	}
+
+	/**
+	 * Copies the sort keys on the event dispatch thread and sorts and filters in
+	 * the background, cancelling a task still running.
+	 */
+	private void schedule() {
+		final int task = ++generation;
+
+		if (sortKeys.isEmpty() && rowFilter == null) {
+			running = false;
+			setView(null);
+			return;
+		}
+
+		final int rowCount = model.getRowCount();
+		final IntPredicate filter = rowFilter;
+		final RowComparator comparator = snapshot(rowCount);
+
+		running = true;
+		pool.execute(() -> {
+			try {
+				IntStream rows = IntStream.range(0, rowCount);
+
+				if (filter != null) {
+					rows = rows.parallel().filter(row -> {
+						checkCancelled(task, row);
+						return filter.test(row);
+					});
+				}
+
+				final int[] view = rows.toArray();
+
+				if (comparator != null)
+					new IndexSorter(view, new int[view.length], 0, view.length, comparator, task).invoke();
+
+				SwingUtilities.invokeLater(() -> apply(task, view));
+			} catch (CancellationException ex) {
+				// a newer task replaced this one
+			} catch (RuntimeException ex) {
+				SwingUtilities.invokeLater(() -> fail(task, ex));
+			}
+		});
+	}
+
+	private void apply(int task, int[] view) {
+		if (task != generation)
+			return;
+
+		running = false;
+		setView(view);
+	}
+
+	/**
+	 * Ends a task whose filter or comparator threw, keeping the view of the last
+	 * task that succeeded, and rethrows the exception on the event dispatch
+	 * thread.
+	 */
+	private void fail(int task, RuntimeException ex) {
+		if (task != generation)
+			return;
+
+		running = false;
+		throw ex;
+	}
+
+	private void setView(int[] view) {
+		if (view == null && viewToModel == null)
+			return;
+
+		final int[] previous = viewToModel != null ? viewToModel
+				: IntStream.range(0, model.getRowCount()).toArray();
+
+		viewToModel = view;
+		modelToView = null;
+		fireRowSorterChanged(previous);
+	}
+
+	private RowComparator snapshot(int rowCount) {
+		RowComparator comparator = null;
+
+		for (int i = sortKeys.size() - 1; i >= 0; i--) {
+			final SortKey key = sortKeys.get(i);
+
+			if (key.getSortOrder() == SortOrder.UNSORTED)
+				continue;
+
+			final RowComparator columnComparator = snapshot(key.getColumn(), rowCount);
+			final RowComparator ordered = key.getSortOrder() == SortOrder.DESCENDING
+					? (a, b) -> columnComparator.compare(b, a)
+					: columnComparator;
+			final RowComparator next = comparator;
+
+			comparator = next == null ? ordered : (a, b) -> {
+				final int result = ordered.compare(a, b);
+				return result != 0 ? result : next.compare(a, b);
+			};
+		}
+
+		return comparator;
+	}
+
+	@SuppressWarnings("unchecked")
+	private RowComparator snapshot(int column, int rowCount) {
+		final IntToLongFunction longKey = longKeys.get(column);
+		final IntToDoubleFunction doubleKey = doubleKeys.get(column);
+
+		if (longKey == null && doubleKey == null && !comparators.containsKey(column)
+				&& model instanceof ColumnarTableModel) {
+			final ColumnarTableModel columnar = (ColumnarTableModel) model;
+			final Class<?> type = model.getColumnClass(column);
+
+			if (type == Integer.class || type == LocalDate.class)
+				return longs(rowCount, row -> columnar.getInt(row, column));
+
+			if (type == Long.class || type == Money.class)
+				return longs(rowCount, row -> columnar.getLong(row, column));
+
+			if (type == Double.class)
+				return doubles(rowCount, row -> columnar.getDouble(row, column));
+		}
+
+		if (longKey != null)
+			return longs(rowCount, longKey);
+
+		if (doubleKey != null)
+			return doubles(rowCount, doubleKey);
+
+		final Object[] values = new Object[rowCount];
+		final Comparator<Object> comparator = (Comparator<Object>) comparators.get(column);
+
+		if (comparator == null && model.getColumnClass(column) == String.class)
+			return collationKeys(rowCount, column);
+
+		for (int row = 0; row < rowCount; row++)
+			values[row] = model.getValueAt(row, column);
+
+		return (a, b) -> compareValues(values[a], values[b], comparator);
+	}
+
+	/**
+	 * Compares the strings of a column as {@code TableRowSorter} does, through
+	 * the collator of the default locale, whose keys are made here, once per
+	 * distinct string, so sorting on the pool does not share the collator.
+	 */
+	private RowComparator collationKeys(int rowCount, int column) {
+		final Collator collator = Collator.getInstance();
+		final Map<Object, CollationKey> distinct = new HashMap<>();
+		final CollationKey[] keys = new CollationKey[rowCount];
+
+		for (int row = 0; row < rowCount; row++) {
+			final Object value = model.getValueAt(row, column);
+
+			if (value != null)
+				keys[row] = distinct.computeIfAbsent(value, v -> collator.getCollationKey(v.toString()));
+		}
+
+		return (a, b) -> compareValues(keys[a], keys[b], null);
+	}
+
+	private static RowComparator longs(int rowCount, IntToLongFunction key) {
+		final long[] keys = new long[rowCount];
+
+		for (int row = 0; row < rowCount; row++)
+			keys[row] = key.applyAsLong(row);
+
+		return (a, b) -> Long.compare(keys[a], keys[b]);
+	}
+
+	private static RowComparator doubles(int rowCount, IntToDoubleFunction key) {
+		final double[] keys = new double[rowCount];
+
+		for (int row = 0; row < rowCount; row++)
+			keys[row] = key.applyAsDouble(row);
+
+		return (a, b) -> Double.compare(keys[a], keys[b]);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int compareValues(Object a, Object b, Comparator<Object> comparator) {
+		if (a == b)
+			return 0;
+
+		if (a == null)
+			return -1;
+
+		if (b == null)
+			return 1;
+
+		if (comparator != null)
+			return comparator.compare(a, b);
+
+		if (a instanceof Comparable && a.getClass() == b.getClass())
+			return ((Comparable) a).compareTo(b);
+
+		return a.toString().compareTo(b.toString());
+	}
+
+	private void checkCancelled(int task, int row) {
+		if ((row & CANCEL_CHECK_MASK) == 0 && task != generation)
+			throw new CancellationException();
+	}
+
+	private void checkColumn(int column) {
+		if (column < 0 || column >= model.getColumnCount())
+			throw new IndexOutOfBoundsException("Invalid column: " + column);
+	}
+
+	private void checkRange(int firstRow, int endRow) {
+		if (firstRow < 0 || endRow < firstRow || endRow >= model.getRowCount())
+			throw new IndexOutOfBoundsException("Invalid range: " + firstRow + " to " + endRow);
+	}
+
+	/**
+	 * Compares two model rows by their copied sort keys.
+	 */
+	@FunctionalInterface
+	private interface RowComparator {
+		int compare(int a, int b);
+	}
+
+	/**
+	 * A stable parallel merge sort of model row indices.
+	 */
+	private final class IndexSorter extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] rows;
+		private final int[] buffer;
+		private final int from;
+		private final int to;
+		private final RowComparator comparator;
+		private final int task;
+
+		IndexSorter(int[] rows, int[] buffer, int from, int to, RowComparator comparator, int task) {
+			this.rows = rows;
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+			this.comparator = comparator;
+			this.task = task;
+		}
+
+		@Override
+		protected void compute() {
+			if (task != generation)
+				throw new CancellationException();
+
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				sort(from, to);
+				return;
+			}
+
+			final int middle = (from + to) >>> 1;
+
+			invokeAll(new IndexSorter(rows, buffer, from, middle, comparator, task),
+					new IndexSorter(rows, buffer, middle, to, comparator, task));
+			merge(from, middle, to);
+		}
+
+		private void sort(int lo, int hi) {
+			if (hi - lo <= INSERTION_THRESHOLD) {
+				for (int i = lo + 1; i < hi; i++) {
+					final int row = rows[i];
+					int j = i - 1;
+
+					while (j >= lo && comparator.compare(rows[j], row) > 0) {
+						rows[j + 1] = rows[j];
+						j--;
+					}
+
+					rows[j + 1] = row;
+				}
+
+				return;
+			}
+
+			final int middle = (lo + hi) >>> 1;
+
+			sort(lo, middle);
+			sort(middle, hi);
+			merge(lo, middle, hi);
+		}
+
+		private void merge(int lo, int middle, int hi) {
+			// already in order, as when the rows were sorted by this column before
+			if (comparator.compare(rows[middle - 1], rows[middle]) <= 0)
+				return;
+
+			System.arraycopy(rows, lo, buffer, lo, hi - lo);
+
+			int left = lo;
+			int right = middle;
+
+			for (int i = lo; i < hi; i++) {
+				if (right >= hi || left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)
+					rows[i] = buffer[left++];
+				else
+					rows[i] = buffer[right++];
+			}
+		}
+	}
+}
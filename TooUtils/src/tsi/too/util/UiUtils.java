@@ -1,22 +1,20 @@
 package tsi.too.util;
 
-import java.math.RoundingMode;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
+import java.time.LocalDate;
 
 import javax.swing.JFormattedTextField;
-import javax.swing.JFormattedTextField.AbstractFormatter;
 import javax.swing.JFormattedTextField.AbstractFormatterFactory;
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.text.InternationalFormatter;
 import javax.swing.text.MaskFormatter;
 
+import tsi.too.ext.Money;
+
 /**
  * Convenience class for commonly used UI methods.
  * 
  * @author Lucas Cristovam
- * @version 0.2
+ * @version 0.3
  */
 public class UiUtils {
 	
@@ -28,21 +26,17 @@ public class UiUtils {
 	 * @since 0.1
 	 */
 	public static MaskFormatter createBrazilianDateMaskFormatter() {
-		String mask = "##/##/####";
-		
-		try {
-			MaskFormatter maskFormatter = new MaskFormatter(mask);
-			maskFormatter.setPlaceholderCharacter('_');
-
-			return maskFormatter;
-		} catch (Exception ex) {
-			return null;
-		}
+		return InputMask.BRAZILIAN_DATE.createFormatter();
 	}
 		
 	/**
 	 * Creates a {@link AbstractFormatterFactory} for currency.
 	 * 
+	 * <p>
+	 * The fields edit the amount as whole cents, see
+	 * {@link CurrencyFormatterFactory}.
+	 * </p>
+	 * 
 	 * @param minValue the minimum acceptable value.
 	 * @param maxValue the maximum acceptable value.
 	 * @return the created {@link AbstractFormatterFactory}.
@@ -50,21 +44,7 @@ public class UiUtils {
 	 * @since 0.1
 	 */
 	public static AbstractFormatterFactory createCurrencyFormatterFactory(Double minValue, Double maxValue) {
-		return new AbstractFormatterFactory() {
-            @Override
-            public AbstractFormatter getFormatter(JFormattedTextField tf) {
-                NumberFormat format = DecimalFormat.getInstance();
-                format.setMinimumFractionDigits(2);
-                format.setMaximumFractionDigits(2);
-                format.setRoundingMode(RoundingMode.HALF_UP);
-                InternationalFormatter formatter = new InternationalFormatter(format);
-                formatter.setAllowsInvalid(false);
-                formatter.setMinimum(minValue);
-                formatter.setMaximum(maxValue);
-                
-                return formatter;
-            }
-        };
+		return new CurrencyFormatterFactory(minValue, maxValue);
 	}
 	
 	/**
@@ -80,6 +60,28 @@ public class UiUtils {
 		renderer.setHorizontalAlignment(alignment);
 	}
 	
+	/**
+	 * Sets caching renderers as the default renderers of a table for numbers,
+	 * {@link Money} and {@link LocalDate} values, so repaints do not format the
+	 * visible cells again. Currency columns holding plain numbers must be given a
+	 * {@link CurrencyCellRenderer} explicitly.
+	 * 
+	 * @param table the target table.
+	 * 
+	 * @since 0.3
+	 * 
+	 * @see CachingCellRenderer
+	 */
+	public static void setCachingRenderers(JTable table) {
+		final NumericCellRenderer numericRenderer = new NumericCellRenderer();
+		
+		table.setDefaultRenderer(Number.class, numericRenderer);
+		table.setDefaultRenderer(Double.class, numericRenderer);
+		table.setDefaultRenderer(Float.class, numericRenderer);
+		table.setDefaultRenderer(Money.class, new CurrencyCellRenderer());
+		table.setDefaultRenderer(LocalDate.class, new LocalDateCellRenderer());
+	}
+	
 	/**
 	 * Creates a {@link MaskFormatter} for time in HH:mm:ss.
 	 * 
@@ -88,15 +90,6 @@ public class UiUtils {
 	 * @since 0.2.
 	 */
 	public static MaskFormatter createTimeMaskFormatter() {
-		String mask = "##:##:##";
-		
-		try {
-			MaskFormatter maskFormatter = new MaskFormatter(mask);
-			maskFormatter.setPlaceholderCharacter('_');
-
-			return maskFormatter;
-		} catch (Exception ex) {
-			return null;
-		}
+		return InputMask.TIME.createFormatter();
 	}
 }